@@ -0,0 +1,47 @@
+package study.querydsl.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QueryDslApplication;
+import study.querydsl.loader.MemberBulkLoader;
+
+// 벤치마크마다 내장 H2(in-memory)로 Spring 컨텍스트를 띄우고 memberCount만큼 데이터를 적재한다
+final class BenchmarkContext {
+	private static final int TEAM_COUNT = 10;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start(int memberCount, String... properties) {
+		return start(WebApplicationType.NONE, memberCount, properties);
+	}
+
+	// HTTP로 부하를 주는 벤치마크용으로 임의의 포트에 내장 Tomcat을 띄운다 (local.server.port로 확인)
+	static ConfigurableApplicationContext startServer(int memberCount, String... properties) {
+		return start(WebApplicationType.SERVLET, memberCount, properties);
+	}
+
+	private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, int memberCount, String... properties) {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(QueryDslApplication.class)
+			.web(webApplicationType)
+			.properties(
+				"server.port=0",
+				"spring.profiles.active=bench",
+				"spring.datasource.url=jdbc:h2:mem:bench" + memberCount + ";DB_CLOSE_DELAY=-1",
+				"spring.jpa.properties.hibernate.use_sql_comments=false",
+				"spring.jpa.properties.hibernate.format_sql=false",
+				"decorator.datasource.p6spy.enable-logging=false",
+				"logging.level.root=warn",
+				"logging.level.org.hibernate.SQL=warn",
+				// 조회 전략 자체를 비교하기 위해 count 캐시는 사용하지 않는다
+				"querydsl.count-cache.enabled=false")
+			.properties(properties)
+			.run();
+
+		context.getBean(MemberBulkLoader.class).loadWithJdbc(memberCount, TEAM_COUNT, BATCH_SIZE);
+		return context;
+	}
+}
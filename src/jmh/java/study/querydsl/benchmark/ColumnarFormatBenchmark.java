@@ -0,0 +1,106 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.controller.MemberTeamColumnarWriter;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamColumns;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.query.MemberTeamRowRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// /api/v1/members의 JSON 응답과 컬럼 단위 바이너리 응답 비교
+// 응답 크기(bytes on the wire)는 Setup에서 한번 출력하고, 벤치마크는 직렬화 CPU 시간을 측정한다
+@State(Scope.Benchmark)
+public class ColumnarFormatBenchmark {
+	private static final int FETCH_SIZE = 500;
+
+	private static final int BLOCK_SIZE = 1000;
+
+	@Param({"10000", "100000"})
+	private int memberCount;
+
+	private ConfigurableApplicationContext context;
+
+	private MemberJpaRepository memberJpaRepository;
+
+	private MemberTeamRowRepository memberTeamRowRepository;
+
+	private ObjectMapper objectMapper;
+
+	private final MemberSearchCondition condition = new MemberSearchCondition();
+
+	private final OutputStream discard = OutputStream.nullOutputStream();
+
+	// DB 조회를 제외하고 직렬화만 비교하기 위해 미리 조회해둔 결과
+	private List<MemberTeamDto> dtos;
+
+	private MemberTeamColumns columns;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		context = BenchmarkContext.start(memberCount);
+		memberJpaRepository = context.getBean(MemberJpaRepository.class);
+		memberTeamRowRepository = context.getBean(MemberTeamRowRepository.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+
+		dtos = memberJpaRepository.searchByBuilder(condition);
+		columns = memberTeamRowRepository.searchColumns(condition, FETCH_SIZE);
+
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		objectMapper.writeValue(json, dtos);
+		ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+		writeColumnar(columnar);
+		System.out.printf("%n[memberCount=%d] json: %d bytes, columnar: %d bytes (%.1f%%)%n",
+			memberCount, json.size(), columnar.size(), columnar.size() * 100.0 / json.size());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public void serializeJson() throws IOException {
+		objectMapper.writeValue(discard, dtos);
+	}
+
+	@Benchmark
+	public void serializeColumnar() throws IOException {
+		writeColumnar(discard);
+	}
+
+	// 조회부터 응답 기록까지 (v1 JSON vs 커서에서 바로 기록하는 바이너리)
+	@Benchmark
+	public void searchToJson() throws IOException {
+		objectMapper.writeValue(discard, memberJpaRepository.searchByBuilder(condition));
+	}
+
+	@Benchmark
+	public void searchToColumnar() throws IOException {
+		MemberTeamColumnarWriter writer = new MemberTeamColumnarWriter(discard, BLOCK_SIZE);
+		memberTeamRowRepository.search(condition, FETCH_SIZE, writer);
+		writer.finish();
+	}
+
+	private void writeColumnar(OutputStream outputStream) throws IOException {
+		MemberTeamColumnarWriter writer = new MemberTeamColumnarWriter(outputStream, BLOCK_SIZE);
+		for (int i = 0; i < columns.size(); ++i) {
+			writer.onRow(columns.getMemberId(i), columns.getMemberName(i), columns.getMemberAge(i),
+				columns.getTeamId(i), columns.getTeamName(i));
+		}
+		writer.finish();
+	}
+}
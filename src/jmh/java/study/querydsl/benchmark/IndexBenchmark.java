@@ -0,0 +1,79 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+
+// Member, Team에 선언한 검색조건 인덱스가 있을때와 없을때의 검색 응답시간 비교
+@State(Scope.Benchmark)
+public class IndexBenchmark {
+	@Param({"1000000"})
+	private int memberCount;
+
+	@Param({"true", "false"})
+	private boolean indexed;
+
+	private ConfigurableApplicationContext context;
+
+	private MemberRepository memberRepository;
+
+	private MemberSearchCondition memberNameCondition;
+
+	private MemberSearchCondition teamAgeCondition;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(memberCount);
+		memberRepository = context.getBean(MemberRepository.class);
+		if (!indexed) {
+			dropIndexes(context.getBean(JdbcTemplate.class));
+		}
+
+		memberNameCondition = new MemberSearchCondition();
+		memberNameCondition.setMemberName("member" + memberCount / 2);
+
+		teamAgeCondition = new MemberSearchCondition();
+		teamAgeCondition.setTeamName("team1");
+		teamAgeCondition.setAgeGoe(30);
+		teamAgeCondition.setAgeLoe(35);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> searchByMemberName() {
+		return memberRepository.search(memberNameCondition);
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> searchByTeamAndAge() {
+		return memberRepository.search(teamAgeCondition);
+	}
+
+	// (team_id, age) 인덱스는 외래키 제약조건이 사용하고 있으므로 제약조건을 먼저 제거한다
+	private void dropIndexes(JdbcTemplate jdbcTemplate) {
+		List<String> foreignKeys = jdbcTemplate.queryForList(
+			"select constraint_name from information_schema.constraints where table_name = 'MEMBER' and constraint_type = 'REFERENTIAL'",
+			String.class);
+		for (String foreignKey : foreignKeys) {
+			jdbcTemplate.execute("alter table member drop constraint " + foreignKey);
+		}
+		jdbcTemplate.execute("drop index if exists idx_member_name");
+		jdbcTemplate.execute("drop index if exists idx_member_team_age");
+		jdbcTemplate.execute("drop index if exists idx_team_name");
+	}
+}
@@ -0,0 +1,60 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.loader.BulkLoadResult;
+import study.querydsl.loader.MemberBulkLoader;
+
+// 시퀀스 할당 크기별 JPA insert 처리량 비교
+// allocation-size=1 은 insert마다 시퀀스를 조회하던 이전 방식(hibernate_sequence)과 같다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class InsertBenchmark {
+	@Param({"100000"})
+	private int memberCount;
+
+	@Param({"1", "50"})
+	private int allocationSize;
+
+	private ConfigurableApplicationContext context;
+
+	private MemberBulkLoader memberBulkLoader;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(0, "querydsl.id.allocation-size=" + allocationSize);
+		memberBulkLoader = context.getBean(MemberBulkLoader.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void clear() {
+		jdbcTemplate.execute("delete from member");
+		jdbcTemplate.execute("delete from team");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public BulkLoadResult insertWithJpa() {
+		return memberBulkLoader.loadWithJpa(memberCount, 10, 100);
+	}
+}
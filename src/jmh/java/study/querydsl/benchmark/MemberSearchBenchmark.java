@@ -0,0 +1,95 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberTestRepository;
+
+import java.util.List;
+
+// Repository의 검색/페이징 구현별 응답시간 비교
+@State(Scope.Benchmark)
+public class MemberSearchBenchmark {
+	@Param({"10000", "100000"})
+	private int memberCount;
+
+	@Param({"0", "100"})
+	private int pageNumber;
+
+	private ConfigurableApplicationContext context;
+
+	private MemberJpaRepository memberJpaRepository;
+
+	private MemberRepository memberRepository;
+
+	private MemberTestRepository memberTestRepository;
+
+	private MemberSearchCondition condition;
+
+	private PageRequest pageRequest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(memberCount);
+		memberJpaRepository = context.getBean(MemberJpaRepository.class);
+		memberRepository = context.getBean(MemberRepository.class);
+		memberTestRepository = context.getBean(MemberTestRepository.class);
+
+		condition = new MemberSearchCondition();
+		condition.setTeamName("team1");
+		condition.setAgeGoe(10);
+		condition.setAgeLoe(60);
+		pageRequest = PageRequest.of(pageNumber, 20);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> searchByBuilder() {
+		return memberJpaRepository.searchByBuilder(condition);
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> searchByWhereParameters() {
+		return memberJpaRepository.search(condition);
+	}
+
+	@Benchmark
+	public Page<MemberTeamDto> searchPagingSimple() {
+		return memberRepository.searchPagingSimple(condition, pageRequest);
+	}
+
+	@Benchmark
+	public Page<MemberTeamDto> searchPagingComplex() {
+		return memberRepository.searchPagingComplex(condition, pageRequest);
+	}
+
+	@Benchmark
+	public Page<MemberTeamDto> searchPagingComplexBySpringData() {
+		return memberRepository.searchPagingComplexBySpringData(condition, pageRequest);
+	}
+
+	@Benchmark
+	public Page<MemberTeamDto> applyPagination() {
+		return memberTestRepository.applyPagination(condition, pageRequest);
+	}
+
+	@Benchmark
+	public Page<MemberTeamDto> applyPagination2() {
+		return memberTestRepository.applyPagination2(condition, pageRequest);
+	}
+}
@@ -0,0 +1,80 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamColumns;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.query.MemberQueryRepository;
+import study.querydsl.repository.query.MemberTeamRowRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// 전체 회원을 조회하여 JSON으로 직렬화하기까지의 할당량 비교 (QMemberTeamDto 프로젝션 vs JDBC 컬럼 배열)
+// ./gradlew jmh -PjmhInclude=MemberTeamProjectionBenchmark -PjmhProfilers=gc
+// gc.alloc.rate.norm(bytes/op)을 memberCount로 나누면 row당 할당량이 된다
+@State(Scope.Benchmark)
+public class MemberTeamProjectionBenchmark {
+	private static final int FETCH_SIZE = 500;
+
+	@Param({"10000", "100000"})
+	private int memberCount;
+
+	private ConfigurableApplicationContext context;
+
+	private MemberQueryRepository memberQueryRepository;
+
+	private MemberTeamRowRepository memberTeamRowRepository;
+
+	private ObjectMapper objectMapper;
+
+	private final MemberSearchCondition condition = new MemberSearchCondition();
+
+	private final OutputStream discard = OutputStream.nullOutputStream();
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(memberCount);
+		memberQueryRepository = context.getBean(MemberQueryRepository.class);
+		memberTeamRowRepository = context.getBean(MemberTeamRowRepository.class);
+		objectMapper = context.getBean(ObjectMapper.class);
+
+		// MemberQueryRepository.search는 나이 범위가 필요하므로 전체 나이를 포함하도록 설정한다
+		condition.setAgeGoe(0);
+		condition.setAgeLoe(200);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberTeamDto> dtoProjection() {
+		return memberQueryRepository.search(condition);
+	}
+
+	@Benchmark
+	public MemberTeamColumns columnProjection() {
+		return memberTeamRowRepository.searchColumns(condition, FETCH_SIZE);
+	}
+
+	@Benchmark
+	public void dtoProjectionToJson() throws IOException {
+		objectMapper.writeValue(discard, memberQueryRepository.search(condition));
+	}
+
+	@Benchmark
+	public void columnProjectionToJson() throws IOException {
+		objectMapper.writeValue(discard, memberTeamRowRepository.searchColumns(condition, FETCH_SIZE));
+	}
+}
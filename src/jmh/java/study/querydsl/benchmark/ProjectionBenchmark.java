@@ -0,0 +1,72 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.dto.MemberDto;
+import study.querydsl.dto.QMemberDto;
+
+import java.util.List;
+
+import static study.querydsl.domain.QMember.member;
+
+// QuerydslMiddleTest의 Dto 프로젝션 방식(setter, field, 생성자, @QueryProjection)별 비교
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+	@Param({"10000", "100000"})
+	private int memberCount;
+
+	private ConfigurableApplicationContext context;
+
+	private JPAQueryFactory queryFactory;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.start(memberCount);
+		queryFactory = context.getBean(JPAQueryFactory.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<MemberDto> setter() {
+		return queryFactory
+			.select(Projections.bean(MemberDto.class, member.name, member.age))
+			.from(member)
+			.fetch();
+	}
+
+	@Benchmark
+	public List<MemberDto> field() {
+		return queryFactory
+			.select(Projections.fields(MemberDto.class, member.name, member.age))
+			.from(member)
+			.fetch();
+	}
+
+	@Benchmark
+	public List<MemberDto> constructor() {
+		return queryFactory
+			.select(Projections.constructor(MemberDto.class, member.name, member.age))
+			.from(member)
+			.fetch();
+	}
+
+	@Benchmark
+	public List<MemberDto> queryProjection() {
+		return queryFactory
+			.select(new QMemberDto(member.name, member.age))
+			.from(member)
+			.fetch();
+	}
+}
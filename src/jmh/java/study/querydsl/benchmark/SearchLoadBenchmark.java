@@ -0,0 +1,62 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// 동시 요청이 servlet 스레드 수보다 많을 때 동기 실행과 비동기 실행(querydsl.async)의 처리량 비교
+// servlet 스레드를 커넥션풀보다 적게 제한하여 Tomcat이 먼저 포화되는 상황을 만든다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Threads(64)
+public class SearchLoadBenchmark {
+	@Param({"100000"})
+	private int memberCount;
+
+	@Param({"false", "true"})
+	private boolean async;
+
+	private ConfigurableApplicationContext context;
+
+	private HttpClient httpClient;
+
+	private URI v2Uri;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		context = BenchmarkContext.startServer(memberCount,
+			"querydsl.async.enabled=" + async,
+			"server.tomcat.max-threads=8",
+			"spring.datasource.hikari.maximum-pool-size=16");
+		String port = context.getEnvironment().getProperty("local.server.port");
+		httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		v2Uri = URI.create("http://localhost:" + port + "/api/v2/members?teamName=team1&ageGoe=10&ageLoe=60&page=10&size=20");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	// 503(대기열 초과)도 빠르게 반환된 응답이므로 처리량에 포함되며, 상태코드로 구분할 수 있다
+	@Benchmark
+	public int searchV2() throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(v2Uri).GET().build();
+		return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+}
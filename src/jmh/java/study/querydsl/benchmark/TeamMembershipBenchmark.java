@@ -0,0 +1,59 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// DB 없이 양방향 연관관계(Team.members)를 메모리에서 구성하는 비용
+// InitMember처럼 한 팀에 많은 Member를 생성하거나, 모든 Member를 다른 팀으로 옮기는 경우
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TeamMembershipBenchmark {
+	@Param({"100000"})
+	private int memberCount;
+
+	private Team teamB;
+
+	private List<Member> members;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		Team teamA = new Team("teamA");
+		teamB = new Team("teamB");
+		members = new ArrayList<>(memberCount);
+		for (int i = 0; i < memberCount; ++i) {
+			members.add(new Member("member" + i, i % 100, teamA));
+		}
+	}
+
+	@Benchmark
+	public Team addMembers() {
+		Team team = new Team("team");
+		for (int i = 0; i < memberCount; ++i) {
+			new Member("member" + i, i % 100, team);
+		}
+		return team;
+	}
+
+	@Benchmark
+	public Team moveMembers() {
+		for (Member member : members) {
+			member.changeTeam(teamB);
+		}
+		return teamB;
+	}
+}
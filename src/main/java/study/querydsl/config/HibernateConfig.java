@@ -0,0 +1,25 @@
+package study.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.domain.PooledSequenceGenerator;
+import study.querydsl.repository.support.TableChangeTracker;
+
+@Configuration
+public class HibernateConfig {
+	// StatementInspector를 빈으로 등록하여 Hibernate가 생성하는 모든 SQL을 감시한다
+	@Bean
+	public HibernatePropertiesCustomizer tableChangeTrackerCustomizer(TableChangeTracker tableChangeTracker) {
+		return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, tableChangeTracker);
+	}
+
+	// 엔티티별 시퀀스가 한번에 할당받을 식별자 수를 PooledSequenceGenerator로 전달한다
+	@Bean
+	public HibernatePropertiesCustomizer idAllocationSizeCustomizer(
+		@Value("${querydsl.id.allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+		return hibernateProperties -> hibernateProperties.put(PooledSequenceGenerator.ALLOCATION_SIZE_SETTING, allocationSize);
+	}
+}
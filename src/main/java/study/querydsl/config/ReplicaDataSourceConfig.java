@@ -0,0 +1,64 @@
+package study.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import study.querydsl.datasource.Replica;
+import study.querydsl.datasource.ReplicaProperties;
+import study.querydsl.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// querydsl.replica.enabled=true 일때 spring.datasource를 primary로, querydsl.replica.nodes를 복제본으로 사용한다
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "querydsl.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+	// Boot의 DataSourceConfiguration.Hikari와 같이 spring.datasource.hikari.* (커넥션풀 크기, 타임아웃 등)를 적용한다
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+		HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+			.type(HikariDataSource.class)
+			.build();
+		if (StringUtils.hasText(dataSourceProperties.getName())) {
+			dataSource.setPoolName(dataSourceProperties.getName());
+		}
+		return dataSource;
+	}
+
+	@Bean(destroyMethod = "destroy")
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+															 DataSourceProperties dataSourceProperties,
+															 ReplicaProperties replicaProperties) {
+		List<Replica> replicas = replicaProperties.getNodes().stream()
+			.map(node -> new Replica(node.getName(), DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.driverClassName(dataSourceProperties.getDriverClassName())
+				.url(node.getUrl())
+				.username(node.getUsername() != null ? node.getUsername() : dataSourceProperties.getUsername())
+				.password(node.getPassword() != null ? node.getPassword() : dataSourceProperties.getPassword())
+				.build()))
+			.collect(Collectors.toList());
+
+		return new ReplicaRoutingDataSource(primaryDataSource, replicas, replicaProperties.getSelection(),
+			replicaProperties.getHealthCheckIntervalMillis());
+	}
+
+	// 트랜잭션 시작시점이 아닌 첫 SQL 실행시점에 커넥션을 가져와야 readOnly 여부로 라우팅할 수 있다
+	@Primary
+	@Bean
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+}
@@ -0,0 +1,24 @@
+package study.querydsl.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+
+// querydsl.replica.enabled=true 일때 open-in-view를 끈다
+// Spring은 커넥션을 EntityManager가 닫힐 때까지 유지하고(DELAYED_ACQUISITION_AND_HOLD), open-in-view의 EntityManager는 요청이 끝날 때까지 유지된다
+// 그대로 두면 readOnly 트랜잭션에서 얻은 복제본 커넥션으로 같은 요청의 이후 쓰기가 실행된다
+public class ReplicaEnvironmentPostProcessor implements EnvironmentPostProcessor {
+	private static final String PROPERTY_SOURCE_NAME = "querydslReplica";
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		if (!environment.getProperty("querydsl.replica.enabled", Boolean.class, false)) {
+			return;
+		}
+		environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME,
+			Collections.singletonMap("spring.jpa.open-in-view", false)));
+	}
+}
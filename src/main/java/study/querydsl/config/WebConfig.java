@@ -0,0 +1,22 @@
+package study.querydsl.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.querydsl.metrics.LazyLoadInterceptor;
+import study.querydsl.metrics.StatementBudgetInterceptor;
+
+@RequiredArgsConstructor
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+	private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+	private final LazyLoadInterceptor lazyLoadInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(statementBudgetInterceptor).addPathPatterns("/api/**");
+		registry.addInterceptor(lazyLoadInterceptor).addPathPatterns("/api/**");
+	}
+}
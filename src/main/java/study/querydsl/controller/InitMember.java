@@ -29,7 +29,7 @@ public class InitMember {
 		@PersistenceContext
 		private EntityManager entityManager;
 
-
+		// 식별자를 시퀀스에서 묶음으로 할당받으므로(PooledSequenceGenerator) insert가 batch로 전송된다
 		@Transactional
 		public void init() {
 			Team teamA = new Team("teamA");
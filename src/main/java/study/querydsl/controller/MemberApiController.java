@@ -1,16 +1,33 @@
 package study.querydsl.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.querydsl.MemberKeysetCursor;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamColumns;
 import study.querydsl.dto.querydsl.MemberTeamDto;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.query.MemberTeamRowRepository;
+import study.querydsl.repository.support.KeysetSlice;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @RestController
@@ -19,19 +36,109 @@ public class MemberApiController {
 
 	private final MemberRepository memberRepository;
 
+	private final MemberTeamRowRepository memberTeamRowRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final SearchRequestExecutor searchRequestExecutor;
+
+	private final SearchResultEtag searchResultEtag;
+
+	@Value("${querydsl.stream.fetch-size:500}")
+	private int streamFetchSize;
+
+	@Value("${querydsl.stream.clear-interval:1000}")
+	private int streamClearInterval;
+
+	@Value("${querydsl.stream.flush-interval:100}")
+	private int streamFlushInterval;
+
+	@Value("${querydsl.stream.columnar-block-size:1000}")
+	private int columnarBlockSize;
+
+	@Value("${querydsl.keyset.max-size:2000}")
+	private int keysetMaxSize;
+
 	@GetMapping("/api/v1/members")
-	public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-		return memberJpaRepository.searchByBuilder(condition);
+	public CompletableFuture<List<MemberTeamDto>> searchMemberV1(MemberSearchCondition condition) {
+		return searchRequestExecutor.submit(() -> memberJpaRepository.searchByBuilder(condition));
+	}
+
+	@GetMapping(value = "/api/v1/members", produces = MemberTeamColumnarWriter.CONTENT_TYPE)
+	// Accept: application/vnd.querydsl.member-columnar 요청은 JSON 대신 컬럼 단위 바이너리로 응답한다
+	// 조회되는 대로 출력 스트림에 기록하므로 결과를 메모리에 모으지 않는다
+	public void searchMemberV1Columnar(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+		response.setContentType(MemberTeamColumnarWriter.CONTENT_TYPE);
+
+		MemberTeamColumnarWriter writer = new MemberTeamColumnarWriter(response.getOutputStream(), columnarBlockSize);
+		memberTeamRowRepository.search(condition, streamFetchSize, writer);
+		writer.finish();
+	}
+
+	@GetMapping("/api/v1/members/compact")
+	// v1과 같은 JSON을 응답하지만, row를 Dto 객체 대신 컬럼 배열로 조회하여 대량 응답의 할당을 줄인다
+	public CompletableFuture<MemberTeamColumns> searchMemberV1Compact(MemberSearchCondition condition) {
+		return searchRequestExecutor.submit(() -> memberTeamRowRepository.searchColumns(condition, streamFetchSize));
+	}
+
+	@GetMapping("/api/v1/members/stream")
+	// v1과 같은 검색결과를 메모리에 모으지 않고 조회되는 대로 한 줄씩 응답한다
+	public void streamMemberV1(MemberSearchCondition condition, HttpServletResponse response) throws IOException {
+		response.setContentType(NdjsonWriter.CONTENT_TYPE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+		NdjsonWriter writer = new NdjsonWriter(objectMapper, response.getOutputStream(), streamFlushInterval);
+		memberJpaRepository.streamByCondition(condition, streamFetchSize, streamClearInterval, writer);
+		writer.flush();
 	}
 
 	@GetMapping("/api/v2/members")
-	public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-		return memberRepository.searchPagingComplex(condition, pageable);
+	public CompletableFuture<ResponseEntity<Page<MemberTeamDto>>> searchMemberV2(MemberSearchCondition condition, Pageable pageable,
+																				  WebRequest webRequest) {
+		String etag = searchResultEtag.of("v2", condition.normalize(), pageable);
+		return searchIfModified(etag, webRequest, () -> memberRepository.searchPagingComplex(condition, pageable));
 	}
 
 	@GetMapping("/api/v3/members")
 	// ex. teamname=teamB, page=2, size=20 일 경우 total query 최적화가 되어야 한다
-	public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-		return memberRepository.searchPagingComplexBySpringData(condition, pageable);
+	public CompletableFuture<ResponseEntity<Page<MemberTeamDto>>> searchMemberV3(MemberSearchCondition condition, Pageable pageable,
+																				  WebRequest webRequest) {
+		String etag = searchResultEtag.of("v3", condition.normalize(), pageable);
+		return searchIfModified(etag, webRequest, () -> memberRepository.searchPagingComplexBySpringData(condition, pageable));
+	}
+
+	@GetMapping("/api/v4/members")
+	// ex. teamName=teamB&size=20 으로 첫 페이지를 조회한 뒤, 응답의 nextCursor를 cursor로 전달하여 다음 페이지를 조회한다
+	public KeysetSlice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition,
+													 @RequestParam(required = false) String cursor,
+													 @RequestParam(defaultValue = "20") int size) {
+		if (size < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be greater than 0");
+		}
+		try {
+			MemberKeysetCursor.decode(cursor);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Wrong cursor", e);
+		}
+		// 한번에 조회하는 row 수는 keysetMaxSize로 제한한다
+		return memberRepository.searchByKeyset(condition, cursor, Math.min(size, keysetMaxSize));
+	}
+
+	@GetMapping("/api/v5/members")
+	// 무한 스크롤용: total 없이 hasNext만 응답하므로 count query가 실행되지 않는다 (ex. teamName=teamB&page=2&size=20)
+	public CompletableFuture<Slice<MemberTeamDto>> searchMemberV5(MemberSearchCondition condition, Pageable pageable) {
+		return searchRequestExecutor.submit(() -> memberRepository.searchSlice(condition, pageable));
+	}
+
+	// 클라이언트의 If-None-Match가 현재 ETag와 같으면 content, count query를 실행하지 않고 304로 응답한다
+	// ETag는 쿼리 실행 전의 버전으로 만들어지므로, 실행 중에 변경되더라도 다음 요청에서 다시 조회된다
+	private <T> CompletableFuture<ResponseEntity<T>> searchIfModified(String etag, WebRequest webRequest, Supplier<T> search) {
+		if (etag == null) {
+			return searchRequestExecutor.submit(() -> ResponseEntity.ok(search.get()));
+		}
+		if (webRequest.checkNotModified(etag)) {
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+		}
+		return searchRequestExecutor.submit(() -> ResponseEntity.ok().eTag(etag).body(search.get()));
 	}
 }
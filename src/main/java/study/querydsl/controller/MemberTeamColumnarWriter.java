@@ -0,0 +1,142 @@
+package study.querydsl.controller;
+
+import study.querydsl.dto.querydsl.MemberTeamRowHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// 검색결과를 컬럼 단위의 바이너리로 기록한다 (정수는 모두 big-endian)
+// 조회되는 대로 blockSize개의 row를 모아 block으로 기록하므로 전체 결과를 메모리에 모으지 않는다
+//
+// "MTC1"
+// block*: int rowCount, 이후 컬럼 5개가 각각 int byteLength + bytes
+//   memberId   long * rowCount
+//   memberName (int length + UTF-8) * rowCount, null은 length -1
+//   memberAge  int * rowCount
+//   teamId     long * rowCount, 팀이 없으면 MemberTeamColumns.NO_TEAM(0)
+//   teamName   int 새 사전항목 수 + (int length + UTF-8) * 항목 수, 이후 int 사전번호 * rowCount, null은 -1
+//              사전번호는 응답 전체에서 처음 등장한 순서대로 0부터 부여된다
+// int 0 (종료)
+public class MemberTeamColumnarWriter implements MemberTeamRowHandler {
+	public static final String CONTENT_TYPE = "application/vnd.querydsl.member-columnar";
+
+	static final byte[] MAGIC = "MTC1".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int NULL = -1;
+
+	private final DataOutputStream output;
+
+	private final int blockSize;
+
+	private final Column memberIds = new Column();
+
+	private final Column memberNames = new Column();
+
+	private final Column memberAges = new Column();
+
+	private final Column teamIds = new Column();
+
+	private final Column teamCodes = new Column();
+
+	private final Column teamDictionary = new Column();
+
+	private final Map<String, Integer> dictionary = new HashMap<>();
+
+	private int newDictionaryEntries;
+
+	private int rowCount;
+
+	public MemberTeamColumnarWriter(OutputStream outputStream, int blockSize) throws IOException {
+		this.output = new DataOutputStream(outputStream);
+		this.blockSize = blockSize;
+		output.write(MAGIC);
+	}
+
+	@Override
+	public void onRow(long memberId, String memberName, int memberAge, long teamId, String teamName) {
+		try {
+			memberIds.data.writeLong(memberId);
+			writeString(memberNames.data, memberName);
+			memberAges.data.writeInt(memberAge);
+			teamIds.data.writeLong(teamId);
+			teamCodes.data.writeInt(teamName != null ? encode(teamName) : NULL);
+			if (++rowCount == blockSize) {
+				writeBlock();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void finish() throws IOException {
+		if (rowCount > 0) {
+			writeBlock();
+		}
+		output.writeInt(0);
+		output.flush();
+	}
+
+	private int encode(String teamName) throws IOException {
+		Integer code = dictionary.get(teamName);
+		if (code == null) {
+			code = dictionary.size();
+			dictionary.put(teamName, code);
+			writeString(teamDictionary.data, teamName);
+			++newDictionaryEntries;
+		}
+		return code;
+	}
+
+	private void writeBlock() throws IOException {
+		output.writeInt(rowCount);
+		memberIds.writeTo(output);
+		memberNames.writeTo(output);
+		memberAges.writeTo(output);
+		teamIds.writeTo(output);
+
+		// 이번 block에서 새로 등장한 팀명을 사전번호보다 먼저 기록한다
+		output.writeInt(Integer.BYTES + teamDictionary.size() + teamCodes.size());
+		output.writeInt(newDictionaryEntries);
+		teamDictionary.bytes.writeTo(output);
+		teamCodes.bytes.writeTo(output);
+		teamDictionary.bytes.reset();
+		teamCodes.bytes.reset();
+		newDictionaryEntries = 0;
+
+		rowCount = 0;
+		// block마다 전송하여 클라이언트가 전체 응답을 기다리지 않고 읽을 수 있도록 한다
+		output.flush();
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		if (value == null) {
+			data.writeInt(NULL);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	private static class Column {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream data = new DataOutputStream(bytes);
+
+		private int size() {
+			return bytes.size();
+		}
+
+		private void writeTo(DataOutputStream output) throws IOException {
+			output.writeInt(bytes.size());
+			bytes.writeTo(output);
+			bytes.reset();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// 객체를 한 줄에 하나씩 JSON으로 기록한다 (newline-delimited JSON)
+// flushInterval마다 flush하여 클라이언트가 전체 응답을 기다리지 않고 바로 읽을 수 있도록 한다
+class NdjsonWriter implements Consumer<Object> {
+	static final String CONTENT_TYPE = "application/x-ndjson";
+
+	private static final int NEW_LINE = '\n';
+
+	private final ObjectMapper objectMapper;
+
+	private final OutputStream outputStream;
+
+	private final int flushInterval;
+
+	private long count;
+
+	NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream, int flushInterval) {
+		this.objectMapper = objectMapper;
+		this.outputStream = outputStream;
+		this.flushInterval = flushInterval;
+	}
+
+	@Override
+	public void accept(Object value) {
+		try {
+			outputStream.write(objectMapper.writeValueAsBytes(value));
+			outputStream.write(NEW_LINE);
+			if (++count % flushInterval == 0) {
+				outputStream.flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void flush() throws IOException {
+		outputStream.flush();
+	}
+}
@@ -0,0 +1,84 @@
+package study.querydsl.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.metrics.LazyLoadDetector;
+import study.querydsl.metrics.QueryContext;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// 검색 API를 servlet 스레드가 아닌 별도의 스레드풀에서 실행하여, DB 응답을 기다리는 동안 servlet 스레드를 반환한다
+// 동시 실행 수는 커넥션풀 크기로 제한하고, 대기열까지 가득차면 기다리지 않고 바로 503으로 응답한다
+// 실행중인 검색은 커넥션을 잡은 채로 count 작업 스레드(ParallelPaginationExecutor)의 커넥션을 기다리므로
+// 지정하지 않으면 그 작업 스레드 수만큼 남겨두어, 검색이 몰려도 count와 쓰기 요청이 커넥션을 얻을 수 있도록 한다
+// 비활성화되어 있으면 요청 스레드에서 그대로 실행한다
+@Component
+public class SearchRequestExecutor implements DisposableBean {
+	private final boolean enabled;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Counter rejectedCounter;
+
+	public SearchRequestExecutor(MeterRegistry meterRegistry,
+								 @Value("${querydsl.async.enabled:false}") boolean enabled,
+								 @Value("${querydsl.async.max-concurrency:0}") int maxConcurrency,
+								 @Value("${querydsl.async.queue-capacity:100}") int queueCapacity,
+								 @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+								 @Value("${querydsl.parallel-pagination.pool-size:4}") int parallelPaginationPoolSize) {
+		this.enabled = enabled;
+		if (maxConcurrency <= 0) {
+			maxConcurrency = Math.max(1, connectionPoolSize - parallelPaginationPoolSize);
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+				Thread thread = new Thread(runnable, "search-request-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
+		this.rejectedCounter = Counter.builder("querydsl.async.rejected")
+			.description("Search requests rejected because the async queue was full")
+			.register(meterRegistry);
+		Gauge.builder("querydsl.async.active", executor, ThreadPoolExecutor::getActiveCount)
+			.description("Search requests currently running on the async executor")
+			.register(meterRegistry);
+		Gauge.builder("querydsl.async.queued", executor, e -> e.getQueue().size())
+			.description("Search requests waiting for the async executor")
+			.register(meterRegistry);
+	}
+
+	public <T> CompletableFuture<T> submit(Supplier<T> search) {
+		if (!enabled) {
+			return CompletableFuture.completedFuture(search.get());
+		}
+
+		// 요청 단위의 쿼리 통계와 지연로딩 검사 scope를 작업 스레드에서도 이어서 사용한다
+		Supplier<T> task = LazyLoadDetector.propagate(QueryContext.propagate(search));
+		try {
+			return CompletableFuture.supplyAsync(task, executor);
+		} catch (RejectedExecutionException e) {
+			rejectedCounter.increment();
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search queue is full", e);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,40 @@
+package study.querydsl.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.support.TableChangeTracker;
+
+import java.util.Objects;
+
+// 검색결과의 ETag를 쿼리를 실행하지 않고 만든다
+// member, team 테이블의 변경 버전(TableChangeTracker)이 같다면 같은 요청의 검색결과도 같다
+// JSON 직렬화 결과가 byte 단위로 같다고 보장하지는 않으므로 weak ETag를 사용한다
+// 변경 버전은 이 프로세스가 보낸 SQL로만 증가한다 -> 다른 인스턴스, tcp로 같은 DB에 접속한 다른 클라이언트, 복제본의 변경은 알 수 없다
+// 이 애플리케이션 하나만 DB에 쓰는 경우가 아니면 변경된 결과에도 304로 응답하게 되므로 기본값은 비활성화이다
+@Component
+public class SearchResultEtag {
+	private static final String[] TABLES = {"member", "team"};
+
+	private final TableChangeTracker tableChangeTracker;
+
+	private final boolean enabled;
+
+	// 재시작하면 버전이 0부터 다시 증가하므로, 이전 프로세스에서 발급한 ETag와 구분한다
+	private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+	public SearchResultEtag(TableChangeTracker tableChangeTracker,
+							@Value("${querydsl.etag.enabled:false}") boolean enabled) {
+		this.tableChangeTracker = tableChangeTracker;
+		this.enabled = enabled;
+	}
+
+	// 비활성화되어 있으면 null을 반환한다
+	// keys는 검색결과를 결정하는 값(API 버전, 정규화된 검색조건, 페이지)이며, 다른 요청의 ETag와 구분하는 용도이다
+	public String of(Object... keys) {
+		if (!enabled) {
+			return null;
+		}
+		return "W/\"" + epoch + "-" + Long.toString(tableChangeTracker.getVersion(TABLES), Character.MAX_RADIX)
+			+ "-" + Integer.toHexString(Objects.hash(keys)) + "\"";
+	}
+}
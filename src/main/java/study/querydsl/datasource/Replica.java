@@ -0,0 +1,36 @@
+package study.querydsl.datasource;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import javax.sql.DataSource;
+
+// 복제본 하나의 상태 (health check 스레드와 요청 스레드가 함께 접근한다)
+@ToString(of = {"name", "healthy", "latencyNanos"})
+@Getter
+public class Replica {
+	// 지연시간은 최근 값에 가중치를 둔 이동평균으로 관리한다
+	private static final double LATENCY_WEIGHT = 0.3;
+
+	private final String name;
+
+	private final DataSource dataSource;
+
+	private volatile boolean healthy = true;
+
+	private volatile long latencyNanos;
+
+	public Replica(String name, DataSource dataSource) {
+		this.name = name;
+		this.dataSource = dataSource;
+	}
+
+	void markUp(long elapsedNanos) {
+		latencyNanos = latencyNanos == 0 ? elapsedNanos : (long) (latencyNanos * (1 - LATENCY_WEIGHT) + elapsedNanos * LATENCY_WEIGHT);
+		healthy = true;
+	}
+
+	void markDown() {
+		healthy = false;
+	}
+}
@@ -0,0 +1,30 @@
+package study.querydsl.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "querydsl.replica")
+public class ReplicaProperties {
+	private boolean enabled;
+
+	private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+	private long healthCheckIntervalMillis = 5000;
+
+	private List<Node> nodes = new ArrayList<>();
+
+	@Data
+	public static class Node {
+		private String name;
+
+		private String url;
+
+		private String username;
+
+		private String password;
+	}
+}
@@ -0,0 +1,145 @@
+package study.querydsl.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// @Transactional(readOnly = true) 트랜잭션의 커넥션은 복제본에서, 그 외에는 primary에서 가져온다
+// 트랜잭션의 readOnly 여부는 커넥션을 가져오는 시점에 결정되어 있어야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용한다
+// 사용 가능한 복제본이 없거나 모두 커넥션을 얻지 못하면 primary로 대체한다
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+	private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+	private final DataSource primary;
+
+	private final List<Replica> replicas;
+
+	private final ReplicaSelection selection;
+
+	private final AtomicInteger roundRobin = new AtomicInteger();
+
+	private final ScheduledExecutorService healthChecker;
+
+	public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReplicaSelection selection,
+									long healthCheckIntervalMillis) {
+		this.primary = primary;
+		this.replicas = new ArrayList<>(replicas);
+		this.selection = selection;
+		this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "replica-health-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (healthCheckIntervalMillis > 0) {
+			healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (!isReadOnlyTransaction()) {
+			return primary.getConnection();
+		}
+
+		for (Replica replica : candidates()) {
+			try {
+				return replica.getDataSource().getConnection();
+			} catch (SQLException e) {
+				log.warn("replica {} unavailable, trying next: {}", replica.getName(), e.getMessage());
+				replica.markDown();
+			}
+		}
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		if (!isReadOnlyTransaction()) {
+			return primary.getConnection(username, password);
+		}
+
+		for (Replica replica : candidates()) {
+			try {
+				return replica.getDataSource().getConnection(username, password);
+			} catch (SQLException e) {
+				log.warn("replica {} unavailable, trying next: {}", replica.getName(), e.getMessage());
+				replica.markDown();
+			}
+		}
+		return primary.getConnection(username, password);
+	}
+
+	// 복제본마다 커넥션 유효성을 확인하고 응답시간을 기록한다
+	public void checkHealth() {
+		for (Replica replica : replicas) {
+			long start = System.nanoTime();
+			try (Connection connection = replica.getDataSource().getConnection()) {
+				if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+					replica.markUp(System.nanoTime() - start);
+				} else {
+					replica.markDown();
+				}
+			} catch (SQLException e) {
+				replica.markDown();
+			}
+		}
+	}
+
+	public List<Replica> getReplicas() {
+		return replicas;
+	}
+
+	// 정상 상태인 복제본을 선택 전략에 따른 순서로 반환한다
+	List<Replica> candidates() {
+		List<Replica> healthy = replicas.stream()
+			.filter(Replica::isHealthy)
+			.collect(Collectors.toList());
+		if (healthy.isEmpty()) {
+			return healthy;
+		}
+
+		if (selection == ReplicaSelection.LEAST_LATENCY) {
+			healthy.sort(Comparator.comparingLong(Replica::getLatencyNanos));
+			return healthy;
+		}
+
+		int start = Math.floorMod(roundRobin.getAndIncrement(), healthy.size());
+		List<Replica> ordered = new ArrayList<>(healthy.subList(start, healthy.size()));
+		ordered.addAll(healthy.subList(0, start));
+		return ordered;
+	}
+
+	private boolean isReadOnlyTransaction() {
+		return TransactionSynchronizationManager.isActualTransactionActive()
+			&& TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		healthChecker.shutdownNow();
+		close(primary);
+		for (Replica replica : replicas) {
+			close(replica.getDataSource());
+		}
+	}
+
+	private void close(DataSource dataSource) throws Exception {
+		if (dataSource instanceof AutoCloseable) {
+			((AutoCloseable) dataSource).close();
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package study.querydsl.datasource;
+
+public enum ReplicaSelection {
+	ROUND_ROBIN,
+	LEAST_LATENCY
+}
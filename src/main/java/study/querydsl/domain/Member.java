@@ -4,6 +4,9 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
@@ -11,9 +14,16 @@ import javax.persistence.*;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+// MemberSearchCondition의 검색조건(memberName, teamName + age 범위)에 맞춘 인덱스
+@Table(indexes = {
+	@Index(name = "idx_member_name", columnList = "name"),
+	@Index(name = "idx_member_team_age", columnList = "team_id, age")
+})
 public class Member {
 	@Id
-	@GeneratedValue
+	@GeneratedValue(generator = "member_seq")
+	@GenericGenerator(name = "member_seq", strategy = "study.querydsl.domain.PooledSequenceGenerator",
+		parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
 	@Column(name = "member_id")
 	private Long id;
 
@@ -22,6 +32,7 @@ public class Member {
 	private int age;
 
 	@ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+	@JoinColumn(name = "team_id")
 	private Team team;
 
 	public Member(String name) {
@@ -35,9 +46,7 @@ public class Member {
 
 	public Member(String name, int age, Team team) {
 		this(name, age);
-		this.team = team;
-		if (this.team != null) {
-			this.team.removeMember(this);
+		if (team != null) {
 			changeTeam(team);
 		}
 	}
@@ -46,8 +55,20 @@ public class Member {
 		this.name = name;
 	}
 
+	// 이전 팀의 컬렉션에서 제거하고 새 팀에 추가한다
 	public void changeTeam(Team team) {
+		if (this.team != null) {
+			this.team.removeMember(this);
+		}
+		this.team = team;
+		if (team != null) {
+			team.addMember(this);
+		}
+	}
+
+	// 연관관계의 주인(Member.team)만 변경하고 팀의 members 컬렉션은 건드리지 않는다
+	// 같은 영속성 컨텍스트에서 team.getMembers()에 반영되지 않으므로, 컬렉션을 사용하지 않는 대량 적재에서만 사용한다
+	public void changeTeamOwningSide(Team team) {
 		this.team = team;
-		this.team.addMember(this);
 	}
 }
@@ -0,0 +1,30 @@
+package study.querydsl.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+// 팀별, 나이구간별 회원 통계
+// Member가 변경될 때마다 MemberStatisticsMaintainer가 증분으로 갱신하므로 member 테이블을 집계하지 않고 조회할 수 있다
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "member_statistics")
+public class MemberStatistics {
+	@EmbeddedId
+	private MemberStatisticsId id;
+
+	private long memberCount;
+
+	private long ageSum;
+
+	private Integer minAge;
+
+	private Integer maxAge;
+}
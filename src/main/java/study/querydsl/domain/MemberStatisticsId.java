@@ -0,0 +1,26 @@
+package study.querydsl.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+// 팀이 없는 회원은 teamId = 0 으로 집계한다
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Embeddable
+public class MemberStatisticsId implements Serializable {
+	public static final long NO_TEAM = 0L;
+
+	private Long teamId;
+
+	private Integer ageBucket;
+}
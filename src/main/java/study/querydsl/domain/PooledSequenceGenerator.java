@@ -0,0 +1,30 @@
+package study.querydsl.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+// 엔티티별 시퀀스에서 식별자를 allocationSize 만큼 한번에 할당받는다 (pooled-lo)
+// 시퀀스 값 v를 받으면 v ~ v + allocationSize - 1 을 DB 조회없이 사용하므로 insert마다 시퀀스를 조회하지 않고 batch insert도 가능하다
+// @SequenceGenerator의 allocationSize는 상수여야 하므로 querydsl.id.allocation-size 설정을 Hibernate 설정으로 전달받아 사용한다
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+	public static final String ALLOCATION_SIZE_SETTING = "querydsl.id.allocation_size";
+
+	public static final String OPTIMIZER = "pooled-lo";
+
+	public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+		Object allocationSize = settings.get(ALLOCATION_SIZE_SETTING);
+		params.setProperty(INCREMENT_PARAM, allocationSize != null ? allocationSize.toString() : String.valueOf(DEFAULT_ALLOCATION_SIZE));
+		params.setProperty(OPT_PARAM, OPTIMIZER);
+		super.configure(type, params, serviceRegistry);
+	}
+}
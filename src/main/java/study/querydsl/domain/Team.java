@@ -4,29 +4,45 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @ToString(of = {"id", "name"})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")	// cache 프로필에서만 동작한다
 public class Team {
-	@Id @GeneratedValue
+	@Id
+	@GeneratedValue(generator = "team_seq")
+	@GenericGenerator(name = "team_seq", strategy = "study.querydsl.domain.PooledSequenceGenerator",
+		parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "team_seq"))
 	@Column(name = "team_id")
 	private Long id;
 
 	private String name;
 
+	// Member는 equals/hashCode를 재정의하지 않으므로 객체 동일성 기준의 Set이 되어 추가/삭제가 O(1)이다
+	// 조회된 컬렉션도 식별자 순서를 유지하도록 @OrderBy를 사용한다 (Hibernate가 LinkedHashSet으로 생성한다)
 	@OneToMany(mappedBy = "team")
-	private List<Member> members = new ArrayList<>();
+	@OrderBy
+	private Set<Member> members = new LinkedHashSet<>();
 
 	public Team(String name) {
 		this.name = name;
 	}
 
+	// 초기화되지 않은 컬렉션은 처음 추가/삭제할 때 한번 조회되고, 이후의 추가/삭제는 O(1)이다
+	// 조회 비용을 피해야 하는 대량 적재는 Member.changeTeamOwningSide를 사용한다
 	void addMember(Member member) {
 		members.add(member);
 	}
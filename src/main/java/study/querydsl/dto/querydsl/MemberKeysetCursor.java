@@ -0,0 +1,48 @@
+package study.querydsl.dto.querydsl;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.util.StringUtils.hasText;
+
+// keyset 페이징에서 마지막으로 조회한 row의 정렬키(age, member_id)를 담는다
+// 클라이언트에는 Base64로 인코딩된 토큰으로만 노출하여 내부 구조에 의존하지 않도록 한다
+@ToString
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberKeysetCursor {
+	private static final String DELIMITER = ":";
+
+	private final int lastMemberAge;
+
+	private final long lastMemberId;
+
+	public static MemberKeysetCursor of(MemberTeamDto lastMember) {
+		return new MemberKeysetCursor(lastMember.getMemberAge(), lastMember.getMemberId());
+	}
+
+	// 커서가 없으면 첫 페이지이므로 null을 반환한다
+	public static MemberKeysetCursor decode(String token) {
+		if (!hasText(token)) {
+			return null;
+		}
+
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] keys = decoded.split(DELIMITER);
+			return new MemberKeysetCursor(Integer.parseInt(keys[0]), Long.parseLong(keys[1]));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("WrongCursor: " + token, e);
+		}
+	}
+
+	public String encode() {
+		String raw = lastMemberAge + DELIMITER + lastMemberId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -2,6 +2,8 @@ package study.querydsl.dto.querydsl;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
 	// 회원명, 팀명, 나이 (ageGoe, ageLoe)
@@ -12,4 +14,14 @@ public class MemberSearchCondition {
 	private Integer ageGoe;		// 크거나 같거나
 
 	private Integer ageLoe;		// 작거나 같거나
+
+	// 검색에 영향을 주지 않는 빈 문자열을 null로 통일하여, 같은 검색조건이 같은 키로 캐싱되도록 한다
+	public MemberSearchCondition normalize() {
+		MemberSearchCondition normalized = new MemberSearchCondition();
+		normalized.setMemberName(hasText(memberName) ? memberName : null);
+		normalized.setTeamName(hasText(teamName) ? teamName : null);
+		normalized.setAgeGoe(ageGoe);
+		normalized.setAgeLoe(ageLoe);
+		return normalized;
+	}
 }
@@ -0,0 +1,33 @@
+package study.querydsl.dto.querydsl;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class MemberStatisticsDto {
+	private Long teamId;
+
+	private String teamName;
+
+	private Integer ageBucket;
+
+	private Long memberCount;
+
+	private Long ageSum;
+
+	private Integer minAge;
+
+	private Integer maxAge;
+
+	@QueryProjection
+	public MemberStatisticsDto(Long teamId, String teamName, Integer ageBucket, Long memberCount, Long ageSum,
+							   Integer minAge, Integer maxAge) {
+		this.teamId = teamId;
+		this.teamName = teamName;
+		this.ageBucket = ageBucket;
+		this.memberCount = memberCount;
+		this.ageSum = ageSum;
+		this.minAge = minAge;
+		this.maxAge = maxAge;
+	}
+}
@@ -0,0 +1,84 @@
+package study.querydsl.dto.querydsl;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+
+// MemberTeamDto 목록을 컬럼별 배열로 보관한다 (row마다 Dto, Long, Integer 객체를 만들지 않는다)
+// 대량 응답용이며, JSON은 List<MemberTeamDto>와 같은 형태로 직렬화된다
+@JsonSerialize(using = MemberTeamColumnsSerializer.class)
+public class MemberTeamColumns implements MemberTeamRowHandler {
+	// 시퀀스는 1부터 시작하므로 0은 식별자로 사용되지 않는다
+	public static final long NO_TEAM = 0L;
+
+	private long[] memberIds;
+
+	private String[] memberNames;
+
+	private int[] memberAges;
+
+	private long[] teamIds;
+
+	private String[] teamNames;
+
+	private int size;
+
+	public MemberTeamColumns(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 1);
+		memberIds = new long[capacity];
+		memberNames = new String[capacity];
+		memberAges = new int[capacity];
+		teamIds = new long[capacity];
+		teamNames = new String[capacity];
+	}
+
+	@Override
+	public void onRow(long memberId, String memberName, int memberAge, long teamId, String teamName) {
+		if (size == memberIds.length) {
+			grow();
+		}
+		memberIds[size] = memberId;
+		memberNames[size] = memberName;
+		memberAges[size] = memberAge;
+		teamIds[size] = teamId;
+		teamNames[size] = teamName;
+		++size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getMemberId(int index) {
+		return memberIds[index];
+	}
+
+	public String getMemberName(int index) {
+		return memberNames[index];
+	}
+
+	public int getMemberAge(int index) {
+		return memberAges[index];
+	}
+
+	public boolean hasTeam(int index) {
+		return teamIds[index] != NO_TEAM;
+	}
+
+	public long getTeamId(int index) {
+		return teamIds[index];
+	}
+
+	public String getTeamName(int index) {
+		return teamNames[index];
+	}
+
+	private void grow() {
+		int capacity = memberIds.length * 2;
+		memberIds = Arrays.copyOf(memberIds, capacity);
+		memberNames = Arrays.copyOf(memberNames, capacity);
+		memberAges = Arrays.copyOf(memberAges, capacity);
+		teamIds = Arrays.copyOf(teamIds, capacity);
+		teamNames = Arrays.copyOf(teamNames, capacity);
+	}
+}
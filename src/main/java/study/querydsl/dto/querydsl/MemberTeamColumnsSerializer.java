@@ -0,0 +1,52 @@
+package study.querydsl.dto.querydsl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// BeanSerializer처럼 getter를 리플렉션으로 호출하지 않고 컬럼 배열에서 바로 기록한다
+// 필드명은 미리 인코딩해두어 row마다 다시 escape하지 않는다
+public class MemberTeamColumnsSerializer extends StdSerializer<MemberTeamColumns> {
+	private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+
+	private static final SerializableString MEMBER_NAME = new SerializedString("memberName");
+
+	private static final SerializableString MEMBER_AGE = new SerializedString("memberAge");
+
+	private static final SerializableString TEAM_ID = new SerializedString("teamId");
+
+	private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+	public MemberTeamColumnsSerializer() {
+		super(MemberTeamColumns.class);
+	}
+
+	@Override
+	public void serialize(MemberTeamColumns columns, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		int size = columns.size();
+		generator.writeStartArray(size);
+		for (int i = 0; i < size; ++i) {
+			generator.writeStartObject();
+			generator.writeFieldName(MEMBER_ID);
+			generator.writeNumber(columns.getMemberId(i));
+			generator.writeFieldName(MEMBER_NAME);
+			generator.writeString(columns.getMemberName(i));
+			generator.writeFieldName(MEMBER_AGE);
+			generator.writeNumber(columns.getMemberAge(i));
+			generator.writeFieldName(TEAM_ID);
+			if (columns.hasTeam(i)) {
+				generator.writeNumber(columns.getTeamId(i));
+			} else {
+				generator.writeNull();
+			}
+			generator.writeFieldName(TEAM_NAME);
+			generator.writeString(columns.getTeamName(i));
+			generator.writeEndObject();
+		}
+		generator.writeEndArray();
+	}
+}
@@ -0,0 +1,8 @@
+package study.querydsl.dto.querydsl;
+
+// JDBC row를 객체로 만들지 않고 컬럼 값을 그대로 전달받는다 (id, age는 boxing되지 않는다)
+// 팀이 없는 회원(left join)은 teamId가 MemberTeamColumns.NO_TEAM, teamName이 null이다
+@FunctionalInterface
+public interface MemberTeamRowHandler {
+	void onRow(long memberId, String memberName, int memberAge, long teamId, String teamName);
+}
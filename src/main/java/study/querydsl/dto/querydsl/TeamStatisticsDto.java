@@ -0,0 +1,33 @@
+package study.querydsl.dto.querydsl;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamStatisticsDto {
+	private Long teamId;
+
+	private String teamName;
+
+	private Long memberCount;
+
+	private Long ageSum;
+
+	private Integer minAge;
+
+	private Integer maxAge;
+
+	@QueryProjection
+	public TeamStatisticsDto(Long teamId, String teamName, Long memberCount, Long ageSum, Integer minAge, Integer maxAge) {
+		this.teamId = teamId;
+		this.teamName = teamName;
+		this.memberCount = memberCount;
+		this.ageSum = ageSum;
+		this.minAge = minAge;
+		this.maxAge = maxAge;
+	}
+
+	public double getAverageAge() {
+		return memberCount == null || memberCount == 0 ? 0 : (double) ageSum / memberCount;
+	}
+}
@@ -0,0 +1,20 @@
+package study.querydsl.loader;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@ToString
+@Getter
+@RequiredArgsConstructor
+public class BulkLoadResult {
+	private final String mode;
+
+	private final long rows;
+
+	private final long elapsedMillis;
+
+	public double getRowsPerSecond() {
+		return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+	}
+}
@@ -0,0 +1,41 @@
+package study.querydsl.loader;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// querydsl.bulk-load.enabled=true 로 실행하면 애플리케이션 시작 시 대량 데이터를 적재한다
+// ex. --querydsl.bulk-load.enabled=true --querydsl.bulk-load.member-count=1000000 --querydsl.bulk-load.mode=jdbc
+@Slf4j
+@ConditionalOnProperty(prefix = "querydsl.bulk-load", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Component
+public class MemberBulkLoadRunner implements ApplicationRunner {
+	private final MemberBulkLoader memberBulkLoader;
+
+	@Value("${querydsl.bulk-load.mode:jpa}")
+	private String mode;
+
+	@Value("${querydsl.bulk-load.member-count:100000}")
+	private int memberCount;
+
+	@Value("${querydsl.bulk-load.team-count:10}")
+	private int teamCount;
+
+	@Value("${querydsl.bulk-load.batch-size:${spring.jpa.properties.hibernate.jdbc.batch_size:100}}")
+	private int batchSize;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		BulkLoadResult result = "jdbc".equalsIgnoreCase(mode)
+			? memberBulkLoader.loadWithJdbc(memberCount, teamCount, batchSize)
+			: memberBulkLoader.loadWithJpa(memberCount, teamCount, batchSize);
+
+		log.info("bulk load finished: mode={}, rows={}, elapsed={}ms, rows/sec={}",
+			result.getMode(), result.getRows(), result.getElapsedMillis(), String.format("%.1f", result.getRowsPerSecond()));
+	}
+}
@@ -0,0 +1,142 @@
+package study.querydsl.loader;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.PooledSequenceGenerator;
+import study.querydsl.domain.QMember;
+import study.querydsl.domain.Team;
+import study.querydsl.repository.support.BulkWriteInterceptor;
+import study.querydsl.repository.support.TableChangeTracker;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+// 부하테스트/스테이징용 대량 데이터를 적재한다
+// InitMember처럼 한건씩 persist하지 않고, batchSize 단위로 JDBC batch insert 후 트랜잭션을 나누어 커밋한다
+@Component
+public class MemberBulkLoader {
+	// 시퀀스 값 하나로 allocationSize 만큼의 식별자를 사용한다 (PooledSequenceGenerator와 같은 pooled-lo 방식)
+	private static final String ID_BLOCK_QUERY = "select next value for %s from system_range(1, ?)";
+
+	private static final String INSERT_TEAM = "insert into team (team_id, name) values (?, ?)";
+
+	private static final String INSERT_MEMBER = "insert into member (member_id, age, name, team_id) values (?, ?, ?, ?)";
+
+	private static final int MAX_AGE = 100;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final TableChangeTracker tableChangeTracker;
+
+	private final BulkWriteInterceptor bulkWriteInterceptor;
+
+	private final int allocationSize;
+
+	public MemberBulkLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+							TableChangeTracker tableChangeTracker, ObjectProvider<BulkWriteInterceptor> bulkWriteInterceptor,
+							@Value("${querydsl.id.allocation-size:" + PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.tableChangeTracker = tableChangeTracker;
+		this.bulkWriteInterceptor = bulkWriteInterceptor.getIfUnique(() -> BulkWriteInterceptor.NONE);
+		this.allocationSize = allocationSize;
+	}
+
+	// JPA 경로: hibernate.jdbc.batch_size, order_inserts 설정으로 insert를 묶어서 전송한다
+	// batchSize마다 flush/clear하여 영속성 컨텍스트가 커지지 않도록 한다
+	public BulkLoadResult loadWithJpa(int memberCount, int teamCount, int batchSize) {
+		long start = System.currentTimeMillis();
+
+		List<Long> teamIds = transactionTemplate.execute(status -> {
+			List<Long> ids = new ArrayList<>();
+			for (int i = 1; i <= teamCount; ++i) {
+				Team team = new Team("team" + i);
+				entityManager.persist(team);
+				ids.add(team.getId());
+			}
+			entityManager.flush();
+			entityManager.clear();
+			return ids;
+		});
+
+		for (int offset = 0; offset < memberCount; offset += batchSize) {
+			int from = offset;
+			int to = Math.min(offset + batchSize, memberCount);
+			transactionTemplate.executeWithoutResult(status -> {
+				entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+				for (int i = from; i < to; ++i) {
+					// 생성자와 changeTeam은 team의 members 컬렉션(지금까지 적재한 회원 전체)을 조회하므로 연관관계의 주인만 설정한다
+					Member member = new Member("member" + (i + 1), i % MAX_AGE + 1);
+					member.changeTeamOwningSide(entityManager.getReference(Team.class, teamIds.get(i % teamCount)));
+					entityManager.persist(member);
+				}
+				entityManager.flush();
+				entityManager.clear();
+			});
+		}
+
+		return new BulkLoadResult("jpa", memberCount, System.currentTimeMillis() - start);
+	}
+
+	// JDBC 경로: 영속성 컨텍스트를 거치지 않고 insert한다
+	// 식별자는 시퀀스 값 하나당 allocationSize만큼 사용하므로 row마다 시퀀스를 조회하지 않는다
+	public BulkLoadResult loadWithJdbc(int memberCount, int teamCount, int batchSize) {
+		long start = System.currentTimeMillis();
+
+		List<Long> teamIds = transactionTemplate.execute(status -> {
+			List<Long> ids = allocateIds("team_seq", teamCount);
+			List<Object[]> rows = new ArrayList<>();
+			for (int i = 0; i < teamCount; ++i) {
+				rows.add(new Object[]{ids.get(i), "team" + (i + 1)});
+			}
+			jdbcTemplate.batchUpdate(INSERT_TEAM, rows);
+			return ids;
+		});
+
+		for (int offset = 0; offset < memberCount; offset += batchSize) {
+			int from = offset;
+			int to = Math.min(offset + batchSize, memberCount);
+			transactionTemplate.executeWithoutResult(status -> {
+				List<Long> ids = allocateIds("member_seq", to - from);
+				List<Object[]> rows = new ArrayList<>();
+				for (int i = from; i < to; ++i) {
+					rows.add(new Object[]{ids.get(i - from), i % MAX_AGE + 1, "member" + (i + 1), teamIds.get(i % teamCount)});
+				}
+				// 적재한 식별자만 전후로 비교하도록 하여, 통계가 member 테이블 전체를 다시 집계하지 않도록 한다
+				bulkWriteInterceptor.execute(QMember.member, QMember.member.id.in(ids), () -> {
+					int inserted = jdbcTemplate.batchUpdate(INSERT_MEMBER, rows).length;
+					// Hibernate를 거치지 않은 변경이므로 직접 변경을 알린다
+					tableChangeTracker.markChanged("member");
+					return inserted;
+				});
+			});
+		}
+
+		tableChangeTracker.markChanged("team");
+		return new BulkLoadResult("jdbc", memberCount, System.currentTimeMillis() - start);
+	}
+
+	private List<Long> allocateIds(String sequence, int size) {
+		int blocks = (size + allocationSize - 1) / allocationSize;
+		List<Long> ids = new ArrayList<>(size);
+		for (Long low : jdbcTemplate.queryForList(String.format(ID_BLOCK_QUERY, sequence), Long.class, blocks)) {
+			for (int i = 0; i < allocationSize && ids.size() < size; ++i) {
+				ids.add(low + i);
+			}
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,183 @@
+package study.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// 지연로딩(프록시 초기화, 컬렉션 초기화)이 연관관계별로 몇번 발생했는지 센다
+// 하나의 scope(HTTP 요청, 테스트 등)에서 threshold를 넘으면 N+1로 판단하여 경고하거나 실패시킨다
+@Slf4j
+@Component
+public class LazyLoadDetector {
+	private static final ThreadLocal<Map<String, Integer>> COUNTS = new ThreadLocal<>();
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final int threshold;
+
+	private final boolean failOnExceeded;
+
+	public LazyLoadDetector(EntityManagerFactory entityManagerFactory,
+							@Value("${querydsl.n-plus-one.threshold:5}") int threshold,
+							@Value("${querydsl.n-plus-one.mode:warn}") String mode) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.threshold = threshold;
+		this.failOnExceeded = "fail".equalsIgnoreCase(mode);
+	}
+
+	@PostConstruct
+	public void registerListeners() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+		registry.appendListeners(EventType.LOAD, new ProxyInitializeListener());
+		registry.appendListeners(EventType.INIT_COLLECTION, new CollectionInitializeListener());
+	}
+
+	public boolean isFailOnExceeded() {
+		return failOnExceeded;
+	}
+
+	public LazyLoadScope open() {
+		return open(threshold);
+	}
+
+	public LazyLoadScope open(int threshold) {
+		Map<String, Integer> previous = COUNTS.get();
+		COUNTS.set(new LinkedHashMap<>());
+		return new LazyLoadScope(previous, threshold);
+	}
+
+	// 요청 스레드의 scope를 작업 스레드에서 실행되는 task로 전달한다
+	public static <T> Supplier<T> propagate(Supplier<T> task) {
+		Map<String, Integer> counts = COUNTS.get();
+		if (counts == null) {
+			return task;
+		}
+
+		return () -> {
+			Map<String, Integer> previous = COUNTS.get();
+			COUNTS.set(counts);
+			try {
+				return task.get();
+			} finally {
+				if (previous == null) {
+					COUNTS.remove();
+				} else {
+					COUNTS.set(previous);
+				}
+			}
+		};
+	}
+
+	private static void record(String association) {
+		Map<String, Integer> counts = COUNTS.get();
+		if (counts != null) {
+			counts.merge(association, 1, Integer::sum);
+		}
+	}
+
+	public class LazyLoadScope implements AutoCloseable {
+		private final Map<String, Integer> previous;
+
+		private final int threshold;
+
+		private final Map<String, Integer> counts;
+
+		private LazyLoadScope(Map<String, Integer> previous, int threshold) {
+			this.previous = previous;
+			this.threshold = threshold;
+			this.counts = COUNTS.get();
+		}
+
+		public Map<String, Integer> getCounts() {
+			return Collections.unmodifiableMap(counts);
+		}
+
+		public int getCount(String association) {
+			return counts.getOrDefault(association, 0);
+		}
+
+		// 비동기 요청처럼 scope가 다른 스레드로 옮겨갈 때 사용한다
+		public void attach() {
+			COUNTS.set(counts);
+		}
+
+		public void detach() {
+			restorePrevious();
+		}
+
+		// threshold를 넘은 연관관계마다 메시지를 하나씩 반환한다
+		public List<String> exceeded() {
+			List<String> messages = new ArrayList<>();
+			for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+				if (entry.getValue() > threshold) {
+					messages.add("N+1 suspected: " + entry.getKey() + " lazily loaded "
+						+ entry.getValue() + " times (threshold: " + threshold + ")");
+				}
+			}
+			return messages;
+		}
+
+		@Override
+		public void close() {
+			restorePrevious();
+
+			for (String message : exceeded()) {
+				if (failOnExceeded) {
+					throw new IllegalStateException(message);
+				}
+				log.warn(message);
+			}
+		}
+
+		private void restorePrevious() {
+			if (previous == null) {
+				COUNTS.remove();
+			} else {
+				COUNTS.set(previous);
+			}
+		}
+	}
+
+	// 프록시(ex. Member.team)가 초기화되면 IMMEDIATE_LOAD 타입의 LoadEvent가 발생한다
+	private static class ProxyInitializeListener implements LoadEventListener {
+		@Override
+		public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+			if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+				record(simpleName(event.getEntityClassName()));
+			}
+		}
+	}
+
+	// 컬렉션은 Team.members 처럼 엔티티명과 필드명으로 기록한다
+	private static class CollectionInitializeListener implements InitializeCollectionEventListener {
+		@Override
+		public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+			String owner = event.getAffectedOwnerEntityName();
+			String property = event.getCollection().getRole().substring(owner.length() + 1);
+			record(simpleName(owner) + "." + property);
+		}
+	}
+
+	private static String simpleName(String entityName) {
+		return entityName.substring(entityName.lastIndexOf('.') + 1);
+	}
+}
@@ -0,0 +1,78 @@
+package study.querydsl.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+// HTTP 요청 하나를 지연로딩 검사 scope로 사용한다
+// 비동기 요청은 다시 dispatch 될때 같은 scope를 현재 스레드에 다시 연결한다
+// afterCompletion에서 던진 예외는 DispatcherServlet이 로그만 남기므로, threshold는 핸들러 실행 직후(postHandle)에 검사한다
+// 넘은 연관관계는 EXCEEDED_ATTRIBUTE 요청 속성으로도 남겨서 MockMvc 테스트에서 확인할 수 있도록 한다
+@Slf4j
+@Component
+public class LazyLoadInterceptor implements AsyncHandlerInterceptor {
+	public static final String EXCEEDED_ATTRIBUTE = LazyLoadInterceptor.class.getName() + ".exceeded";
+
+	private static final String SCOPE_ATTRIBUTE = LazyLoadInterceptor.class.getName() + ".scope";
+
+	private final LazyLoadDetector lazyLoadDetector;
+
+	public LazyLoadInterceptor(LazyLoadDetector lazyLoadDetector) {
+		this.lazyLoadDetector = lazyLoadDetector;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+		if (scope == null) {
+			request.setAttribute(SCOPE_ATTRIBUTE, lazyLoadDetector.open());
+		} else {
+			((LazyLoadDetector.LazyLoadScope) scope).attach();
+		}
+		return true;
+	}
+
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+		Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+		if (scope == null) {
+			return;
+		}
+		List<String> exceeded = ((LazyLoadDetector.LazyLoadScope) scope).exceeded();
+		request.setAttribute(EXCEEDED_ATTRIBUTE, exceeded);
+		if (exceeded.isEmpty()) {
+			return;
+		}
+		if (lazyLoadDetector.isFailOnExceeded()) {
+			throw new IllegalStateException(String.join(", ", exceeded));
+		}
+		exceeded.forEach(log::warn);
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+		if (scope != null) {
+			((LazyLoadDetector.LazyLoadScope) scope).detach();
+		}
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		Object scope = request.getAttribute(SCOPE_ATTRIBUTE);
+		if (scope != null) {
+			request.removeAttribute(SCOPE_ATTRIBUTE);
+			LazyLoadDetector.LazyLoadScope lazyLoadScope = (LazyLoadDetector.LazyLoadScope) scope;
+			lazyLoadScope.detach();
+			// 핸들러가 예외로 끝나서 postHandle이 호출되지 않았다면 경고만 남긴다
+			if (request.getAttribute(EXCEEDED_ATTRIBUTE) == null) {
+				lazyLoadScope.exceeded().forEach(log::warn);
+			}
+		}
+	}
+}
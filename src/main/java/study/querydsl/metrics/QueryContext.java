@@ -0,0 +1,81 @@
+package study.querydsl.metrics;
+
+import java.util.function.Supplier;
+
+// 현재 스레드에서 실행중인 Repository 메서드와 HTTP 요청 단위의 쿼리 통계를 보관한다
+public final class QueryContext {
+	static final String UNKNOWN_ORIGIN = "unknown";
+
+	private static final ThreadLocal<String> ORIGIN = new ThreadLocal<>();
+
+	private static final ThreadLocal<RequestQueryStats> REQUEST = new ThreadLocal<>();
+
+	private QueryContext() {
+	}
+
+	public static String currentOrigin() {
+		String origin = ORIGIN.get();
+		return origin != null ? origin : UNKNOWN_ORIGIN;
+	}
+
+	// 중첩 호출시 가장 안쪽의 메서드를 기록하고, 빠져나올 때 이전 값을 복원할 수 있도록 반환한다
+	static String enter(String origin) {
+		String previous = ORIGIN.get();
+		ORIGIN.set(origin);
+		return previous;
+	}
+
+	static void exit(String previous) {
+		if (previous == null) {
+			ORIGIN.remove();
+		} else {
+			ORIGIN.set(previous);
+		}
+	}
+
+	static RequestQueryStats startRequest() {
+		RequestQueryStats stats = new RequestQueryStats();
+		REQUEST.set(stats);
+		return stats;
+	}
+
+	// 비동기 요청이 다시 dispatch 되면 다른 스레드에서 같은 요청의 통계를 이어서 사용한다
+	static void resumeRequest(RequestQueryStats stats) {
+		REQUEST.set(stats);
+	}
+
+	static RequestQueryStats currentRequest() {
+		return REQUEST.get();
+	}
+
+	static RequestQueryStats endRequest() {
+		RequestQueryStats stats = REQUEST.get();
+		REQUEST.remove();
+		return stats;
+	}
+
+	// 요청 스레드의 통계와 실행중인 Repository 메서드를 작업 스레드에서 실행되는 task로 전달한다
+	public static <T> Supplier<T> propagate(Supplier<T> task) {
+		RequestQueryStats stats = REQUEST.get();
+		String origin = ORIGIN.get();
+		if (stats == null && origin == null) {
+			return task;
+		}
+
+		return () -> {
+			RequestQueryStats previous = REQUEST.get();
+			String previousOrigin = enter(origin);
+			REQUEST.set(stats);
+			try {
+				return task.get();
+			} finally {
+				exit(previousOrigin);
+				if (previous == null) {
+					REQUEST.remove();
+				} else {
+					REQUEST.set(previous);
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,91 @@
+package study.querydsl.metrics;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+// p6spy가 가로챈 JDBC 이벤트로 SQL별 지연시간, 조회 row 수를 기록한다
+// 모든 지표는 쿼리를 실행한 Repository 메서드(origin)로 태그된다
+@Component
+public class QueryMetricsListener extends SimpleJdbcEventListener {
+	// 한 스레드에서 여러 ResultSet을 동시에 읽을 수 있으므로(ex. 커서를 읽으면서 다른 쿼리 실행) ResultSet마다 따로 센다
+	// ResultSetInformation은 equals를 재정의하지 않으므로 ResultSet 하나당 하나의 key가 되고, close 되지 않은 항목은 GC와 함께 사라진다
+	private final Map<ResultSetInformation, long[]> fetchedRows = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final MeterRegistry meterRegistry;
+
+	public QueryMetricsListener(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+		String origin = QueryContext.currentOrigin();
+		Timer.builder("querydsl.query.latency")
+			.description("SQL execution time per repository method")
+			.tag("origin", origin)
+			.tag("type", statementType(statementInformation.getSql()))
+			.tag("outcome", e == null ? "success" : "error")
+			.publishPercentileHistogram()
+			.register(meterRegistry)
+			.record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+
+		RequestQueryStats stats = QueryContext.currentRequest();
+		if (stats != null) {
+			stats.recordStatement(origin, timeElapsedNanos);
+		}
+	}
+
+	@Override
+	public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+		if (hasNext) {
+			fetchedRows.computeIfAbsent(resultSetInformation, key -> new long[1])[0]++;
+		}
+	}
+
+	@Override
+	public void onAfterResultSetClose(ResultSetInformation resultSetInformation, SQLException e) {
+		long[] fetched = fetchedRows.remove(resultSetInformation);
+		long rows = fetched != null ? fetched[0] : 0;
+
+		DistributionSummary.builder("querydsl.query.rows")
+			.description("Rows read per result set")
+			.tag("origin", QueryContext.currentOrigin())
+			.register(meterRegistry)
+			.record(rows);
+
+		RequestQueryStats stats = QueryContext.currentRequest();
+		if (stats != null) {
+			stats.recordRows(rows);
+		}
+	}
+
+	private String statementType(String sql) {
+		if (sql == null) {
+			return "other";
+		}
+		String trimmed = sql.replaceFirst("^\\s*/\\*.*?\\*/", "").trim().toLowerCase(Locale.ROOT);
+		int space = trimmed.indexOf(' ');
+		String keyword = space > 0 ? trimmed.substring(0, space) : trimmed;
+		switch (keyword) {
+			case "select":
+			case "insert":
+			case "update":
+			case "delete":
+				return keyword;
+			default:
+				return "other";
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.MemberRepositoryImpl;
+import study.querydsl.repository.support.QueryTemplateCache;
+
+// MemberRepositoryImpl.search의 쿼리 템플릿 캐시 적중률
+@Component
+public class QueryTemplateCacheMetrics implements MeterBinder {
+	private final MemberRepositoryImpl memberRepositoryImpl;
+
+	public QueryTemplateCacheMetrics(MemberRepositoryImpl memberRepositoryImpl) {
+		this.memberRepositoryImpl = memberRepositoryImpl;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		QueryTemplateCache<Integer> cache = memberRepositoryImpl.getSearchTemplates();
+		FunctionCounter.builder("querydsl.query.template.cache", cache, QueryTemplateCache::getHitCount)
+			.tag("cache", "memberSearch")
+			.tag("result", "hit")
+			.register(registry);
+		FunctionCounter.builder("querydsl.query.template.cache", cache, QueryTemplateCache::getMissCount)
+			.tag("cache", "memberSearch")
+			.tag("result", "miss")
+			.register(registry);
+		Gauge.builder("querydsl.query.template.cache.size", cache, QueryTemplateCache::size)
+			.tag("cache", "memberSearch")
+			.register(registry);
+	}
+}
@@ -0,0 +1,26 @@
+package study.querydsl.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+// SQL 지표에 어떤 Repository 메서드에서 실행된 쿼리인지 태그를 붙이기 위해 현재 메서드를 기록한다
+// ex. MemberRepositoryImpl.searchPagingComplex
+@Aspect
+@Component
+public class RepositoryMethodAspect {
+	@Around("execution(* study.querydsl.repository..*.*(..)) && !within(study.querydsl.repository.support..*)")
+	public Object traceOrigin(ProceedingJoinPoint joinPoint) throws Throwable {
+		MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+		String origin = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+
+		String previous = QueryContext.enter(origin);
+		try {
+			return joinPoint.proceed();
+		} finally {
+			QueryContext.exit(previous);
+		}
+	}
+}
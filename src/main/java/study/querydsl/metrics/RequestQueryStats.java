@@ -0,0 +1,31 @@
+package study.querydsl.metrics;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 하나의 HTTP 요청에서 실행된 SQL 통계
+// 요청 스레드와 함께 작업 스레드(ex. 병렬 count query)에서도 기록되므로 기록은 동기화한다
+@ToString
+@Getter
+public class RequestQueryStats {
+	private int statementCount;
+
+	private long rowCount;
+
+	private long elapsedNanos;
+
+	private final Map<String, Integer> statementsByOrigin = new LinkedHashMap<>();
+
+	synchronized void recordStatement(String origin, long timeElapsedNanos) {
+		statementCount++;
+		elapsedNanos += timeElapsedNanos;
+		statementsByOrigin.merge(origin, 1, Integer::sum);
+	}
+
+	synchronized void recordRows(long rows) {
+		rowCount += rows;
+	}
+}
@@ -0,0 +1,35 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.support.SingleFlight;
+import study.querydsl.repository.support.SingleFlightAspect;
+
+// MemberRepositoryCustom 호출 중 DB에서 실행된 수와 다른 호출의 결과를 공유한(coalesced) 수
+@Component
+public class SingleFlightMetrics implements MeterBinder {
+	private final SingleFlightAspect singleFlightAspect;
+
+	public SingleFlightMetrics(SingleFlightAspect singleFlightAspect) {
+		this.singleFlightAspect = singleFlightAspect;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		SingleFlight<?, ?> singleFlight = singleFlightAspect.getSingleFlight();
+		FunctionCounter.builder("querydsl.single.flight", singleFlight, SingleFlight::getExecutionCount)
+			.tag("repository", "memberSearch")
+			.tag("result", "executed")
+			.register(registry);
+		FunctionCounter.builder("querydsl.single.flight", singleFlight, SingleFlight::getCoalescedCount)
+			.tag("repository", "memberSearch")
+			.tag("result", "coalesced")
+			.register(registry);
+		Gauge.builder("querydsl.single.flight.in.flight", singleFlight, SingleFlight::inFlightCount)
+			.tag("repository", "memberSearch")
+			.register(registry);
+	}
+}
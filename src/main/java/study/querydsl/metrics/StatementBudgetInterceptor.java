@@ -0,0 +1,80 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// HTTP 요청마다 실행된 SQL 수를 기록하고, 설정된 예산(statement-budget)을 넘으면 경고한다
+// 한 요청에서 같은 origin의 SQL이 반복된다면 N+1을 의심할 수 있다
+// 비동기 요청은 통계를 request attribute로 보관하여, 다시 dispatch 되었을때 이어서 사용한다
+@Slf4j
+@Component
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+	private static final String STATS_ATTRIBUTE = StatementBudgetInterceptor.class.getName() + ".stats";
+
+	private final MeterRegistry meterRegistry;
+
+	private final int statementBudget;
+
+	public StatementBudgetInterceptor(MeterRegistry meterRegistry,
+									  @Value("${querydsl.metrics.statement-budget:10}") int statementBudget) {
+		this.meterRegistry = meterRegistry;
+		this.statementBudget = statementBudget;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		RequestQueryStats stats = (RequestQueryStats) request.getAttribute(STATS_ATTRIBUTE);
+		if (stats == null) {
+			request.setAttribute(STATS_ATTRIBUTE, QueryContext.startRequest());
+		} else {
+			QueryContext.resumeRequest(stats);
+		}
+		return true;
+	}
+
+	// 요청 스레드는 반환되므로 스레드의 통계만 정리하고 기록은 비동기 처리가 끝난 뒤에 한다
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		QueryContext.endRequest();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		QueryContext.endRequest();
+		RequestQueryStats stats = (RequestQueryStats) request.getAttribute(STATS_ATTRIBUTE);
+		if (stats == null) {
+			return;
+		}
+		request.removeAttribute(STATS_ATTRIBUTE);
+
+		String uri = requestPattern(request);
+		DistributionSummary.builder("querydsl.request.statements")
+			.description("SQL statements executed per HTTP request")
+			.tag("uri", uri)
+			.register(meterRegistry)
+			.record(stats.getStatementCount());
+
+		if (stats.getStatementCount() > statementBudget) {
+			Counter.builder("querydsl.request.budget.exceeded")
+				.tag("uri", uri)
+				.register(meterRegistry)
+				.increment();
+			log.warn("statement budget exceeded: uri={}, statements={}, budget={}, byOrigin={}",
+				uri, stats.getStatementCount(), statementBudget, stats.getStatementsByOrigin());
+		}
+	}
+
+	private String requestPattern(HttpServletRequest request) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		return pattern != null ? pattern.toString() : request.getRequestURI();
+	}
+}
@@ -1,9 +1,12 @@
 package study.querydsl.repository;
 
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.Member;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
@@ -12,6 +15,7 @@ import study.querydsl.dto.querydsl.QMemberTeamDto;
 import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.domain.QMember.member;
@@ -67,6 +71,7 @@ public class MemberJpaRepository {
 			.fetch();
 	}
 
+	@Transactional(readOnly = true)
 	public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition) {
 		BooleanBuilder builder = new BooleanBuilder();
 
@@ -95,6 +100,7 @@ public class MemberJpaRepository {
 			.fetch();
 	}
 
+	@Transactional(readOnly = true)
 	public List<MemberTeamDto> search(MemberSearchCondition condition) {
 		return jpaQueryFactory
 			.select(new QMemberTeamDto(
@@ -111,6 +117,37 @@ public class MemberJpaRepository {
 			.fetch();
 	}
 
+	// 결과 전체를 List로 만들지 않고 forward-only 커서로 한 row씩 읽어서 consumer에 전달한다
+	// clearInterval마다 영속성 컨텍스트를 비워서 조회 건수와 상관없이 메모리 사용량이 일정하게 유지되도록 한다
+	@Transactional(readOnly = true)
+	public long streamByCondition(MemberSearchCondition condition, int fetchSize, int clearInterval,
+								  Consumer<? super MemberTeamDto> consumer) {
+		long count = 0;
+		try (CloseableIterator<MemberTeamDto> iterator = jpaQueryFactory
+			.select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name, member.age, team.id.as("team_id"), team.name))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				// v1(searchByBuilder)과 같은 결과가 되도록 나이 조건은 입력된 경우에만 적용한다 (betweenAge는 0~100세로 제한한다)
+				goeAge(condition.getAgeGoe()),
+				loeAge(condition.getAgeLoe())
+			)
+			.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+			// Hibernate 환경에서 iterate는 ScrollableResults(ScrollMode.FORWARD_ONLY)로 실행된다
+			.iterate()) {
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+				if (++count % clearInterval == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+		return count;
+	}
+
 	private BooleanExpression equalsMemberName(String memberName) {
 		return hasText(memberName) ? member.name.eq(memberName) : null;
 	}
@@ -2,8 +2,10 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.support.KeysetSlice;
 
 import java.util.List;
 
@@ -15,4 +17,8 @@ public interface MemberRepositoryCustom {
 	Page<MemberTeamDto> searchPagingComplex(MemberSearchCondition condition, Pageable pagable);
 
 	Page<MemberTeamDto> searchPagingComplexBySpringData(MemberSearchCondition condition, Pageable pagable);
+
+	Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pagable);
+
+	KeysetSlice<MemberTeamDto> searchByKeyset(MemberSearchCondition condition, String cursor, int size);
 }
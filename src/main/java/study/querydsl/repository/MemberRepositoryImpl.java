@@ -1,45 +1,109 @@
 package study.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.ParamExpression;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 import study.querydsl.domain.Member;
+import study.querydsl.dto.querydsl.MemberKeysetCursor;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
 import study.querydsl.dto.querydsl.QMemberTeamDto;
+import study.querydsl.repository.statistics.MemberCountEstimator;
+import study.querydsl.repository.support.CountCache;
+import study.querydsl.repository.support.CountEstimate;
+import study.querydsl.repository.support.EstimatedPage;
+import study.querydsl.repository.support.KeysetSlice;
+import study.querydsl.repository.support.ParallelPaginationExecutor;
+import study.querydsl.repository.support.QueryTemplateCache;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.domain.QMember.member;
 import static study.querydsl.domain.QTeam.team;
 
+// 조회 전용 Repository이므로 readOnly 트랜잭션으로 실행한다 (복제본 라우팅 대상)
+@Transactional(readOnly = true)
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
+	private static final String[] SEARCH_TABLES = {"member", "team"};
+
+	private static final Param<String> MEMBER_NAME = new Param<>(String.class, "memberName");
+
+	private static final Param<String> TEAM_NAME = new Param<>(String.class, "teamName");
+
+	private static final Param<Integer> AGE_GOE = new Param<>(Integer.class, "ageGoe");
+
+	private static final Param<Integer> AGE_LOE = new Param<>(Integer.class, "ageLoe");
+
+	private static final int HAS_MEMBER_NAME = 1;
+
+	private static final int HAS_TEAM_NAME = 1 << 1;
+
 	private final JPAQueryFactory jpaQueryFactory;
 
-	public MemberRepositoryImpl(JPAQueryFactory jpaQueryFactory) {
+	private final CountCache countCache;
+
+	private final ParallelPaginationExecutor parallelPaginationExecutor;
+
+	private final MemberCountEstimator memberCountEstimator;
+
+	private final QueryTemplateCache<Integer> searchTemplates;
+
+	// Pageable의 정렬 조건(Member의 속성명)을 검색 쿼리의 member alias에 적용한다
+	private final Querydsl querydsl;
+
+	public MemberRepositoryImpl(JPAQueryFactory jpaQueryFactory, CountCache countCache,
+								ParallelPaginationExecutor parallelPaginationExecutor,
+								MemberCountEstimator memberCountEstimator, EntityManager entityManager) {
 		this.jpaQueryFactory = jpaQueryFactory;
+		this.countCache = countCache;
+		this.parallelPaginationExecutor = parallelPaginationExecutor;
+		this.memberCountEstimator = memberCountEstimator;
+		this.searchTemplates = new QueryTemplateCache<>(entityManager);
+		this.querydsl = new Querydsl(entityManager, new PathBuilder<>(Member.class, member.getMetadata()));
+	}
+
+	public QueryTemplateCache<Integer> getSearchTemplates() {
+		return searchTemplates;
+	}
+
+	// 모든 shape의 템플릿을 미리 만들어둔다
+	public void registerSearchShapes() {
+		for (int shape = 0; shape <= (HAS_MEMBER_NAME | HAS_TEAM_NAME); ++shape) {
+			searchTemplate(shape);
+		}
 	}
 
 	@Override
 	public List<MemberTeamDto> search(MemberSearchCondition condition) {
-		return jpaQueryFactory
-			.select(new QMemberTeamDto(
-				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"), team.id.as("team_id"), team.name.as("team_name")
-			))
-			.from(member)
-			.leftJoin(member.team, team)
-			.where(
-				equalsMemberName(condition.getMemberName()),
-				equalsTeamName(condition.getTeamName()),
-				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
-			)
-			.fetch();
+		// 존재하는 조건의 조합(shape)별로 직렬화된 JPQL을 재사용하고, 값은 파라미터로만 바인딩한다
+		int shape = (hasText(condition.getMemberName()) ? HAS_MEMBER_NAME : 0)
+			| (hasText(condition.getTeamName()) ? HAS_TEAM_NAME : 0);
+
+		Map<ParamExpression<?>, Object> params = new HashMap<>();
+		params.put(MEMBER_NAME, condition.getMemberName());
+		params.put(TEAM_NAME, condition.getTeamName());
+		params.put(AGE_GOE, condition.getAgeGoe() != null ? condition.getAgeGoe() : 0);
+		params.put(AGE_LOE, condition.getAgeLoe() != null ? condition.getAgeLoe() : 100);
+		return searchTemplate(shape).fetch(params);
 	}
 
 	@Override
@@ -68,7 +132,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 	@Override
 	public Page<MemberTeamDto> searchPagingComplex(MemberSearchCondition condition, Pageable pagable) {
 		// total을 구하는데 페이징조건은 필요없으므로 제외한다
-		long total = jpaQueryFactory
+		JPAQuery<Member> countQuery = jpaQueryFactory
 			.select(member)
 			.from(member)
 			.leftJoin(member.team, team)
@@ -76,15 +140,9 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 				equalsMemberName(condition.getMemberName()),
 				equalsTeamName(condition.getTeamName()),
 				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
-			)
-			.fetchCount();
-
-		// total이 0인경우는 아래 Query는 실행할 필요 없으므로, 최적화가 가능하다
-		if (total == 0) {
-			return Page.empty();
-		}
+			);
 
-		List<MemberTeamDto> content = jpaQueryFactory
+		JPAQuery<MemberTeamDto> contentQuery = jpaQueryFactory
 			.select(new QMemberTeamDto(
 				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"),
 				team.id.as("team_id"), team.name.as("team_name")
@@ -97,10 +155,29 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
 			)
 			.offset(pagable.getOffset())
-			.limit(pagable.getPageSize())
-			.fetch();
+			.limit(pagable.getPageSize());
 
-		return new PageImpl<>(content, pagable, total);
+		// 결과가 충분히 많다면 정확한 count 대신 통계로 추정한 total을 사용한다
+		CountEstimate estimate = memberCountEstimator.estimate(condition);
+		if (estimate != null) {
+			return new EstimatedPage<>(contentQuery.fetch(), pagable, estimate);
+		}
+
+		// 같은 검색조건의 total은 member, team이 변경되기 전까지 캐싱된 값을 사용한다
+		MemberSearchCondition cacheKey = condition.normalize();
+		return parallelPaginationExecutor.fetchPage(pagable, contentQuery, countQuery,
+			count -> countCache.getCount("searchPagingComplex", cacheKey, SEARCH_TABLES, count),
+			() -> {
+				long total = countCache.getCount("searchPagingComplex", cacheKey, SEARCH_TABLES, countQuery::fetchCount);
+
+				// total이 0인경우는 아래 Query는 실행할 필요 없으므로, 최적화가 가능하다
+				if (total == 0) {
+					return Page.empty();
+				}
+
+				List<MemberTeamDto> content = contentQuery.fetch();
+				return new PageImpl<>(content, pagable, total);
+			});
 	}
 
 	@Override
@@ -137,6 +214,99 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 		return PageableExecutionUtils.getPage(content, pagable, countQuery::fetchCount);
 	}
 
+	@Override
+	public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pagable) {
+		// 무한 스크롤은 total이 필요없으므로 count query를 실행하지 않는다
+		// 다음 페이지 존재여부는 1개를 더 조회하여 판단한다
+		JPAQuery<MemberTeamDto> query = jpaQueryFactory
+			.select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"),
+				team.id.as("team_id"), team.name.as("team_name")
+			))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
+			);
+
+		// 페이지를 이어서 조회하므로 정렬 순서가 고정되어야 한다
+		// 요청한 정렬 뒤에 식별자를 추가하여 정렬값이 같은 row가 페이지 사이에서 뒤섞이지 않도록 한다
+		querydsl.applySorting(pagable.getSort(), query);
+		if (pagable.getSort().getOrderFor("id") == null) {
+			query.orderBy(member.id.asc());
+		}
+
+		List<MemberTeamDto> content = query
+			.offset(pagable.getOffset())
+			.limit(pagable.getPageSize() + 1)
+			.fetch();
+
+		boolean hasNext = content.size() > pagable.getPageSize();
+		if (hasNext) {
+			content = new ArrayList<>(content.subList(0, pagable.getPageSize()));
+		}
+		return new SliceImpl<>(content, pagable, hasNext);
+	}
+
+	@Override
+	public KeysetSlice<MemberTeamDto> searchByKeyset(MemberSearchCondition condition, String cursor, int size) {
+		// offset은 앞의 row를 모두 읽고 버리므로 페이지가 깊어질수록 느려진다
+		// 마지막으로 조회한 정렬키(age, member_id) 이후부터 읽으면 몇번째 페이지든 비용이 동일하다
+		Assert.isTrue(size > 0, "Size must be greater than 0!");
+		MemberKeysetCursor after = MemberKeysetCursor.decode(cursor);
+
+		// 다음 페이지 존재여부를 count query 없이 판단하기 위해 1개를 더 조회한다
+		List<MemberTeamDto> content = jpaQueryFactory
+			.select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"),
+				team.id.as("team_id"), team.name.as("team_name")
+			))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				betweenAge(condition.getAgeGoe(), condition.getAgeLoe()),
+				afterCursor(after)
+			)
+			.orderBy(member.age.asc(), member.id.asc())
+			.limit(size + 1)
+			.fetch();
+
+		boolean hasNext = content.size() > size;
+		if (hasNext) {
+			content = new ArrayList<>(content.subList(0, size));
+		}
+
+		String nextCursor = hasNext ? MemberKeysetCursor.of(content.get(content.size() - 1)).encode() : null;
+		// keyset 방식은 페이지 번호가 의미없으므로 항상 0번 페이지로 표현한다
+		return new KeysetSlice<>(content, PageRequest.of(0, size), hasNext, nextCursor);
+	}
+
+	private BooleanExpression afterCursor(MemberKeysetCursor cursor) {
+		if (cursor == null) {
+			return null;
+		}
+		return member.age.gt(cursor.getLastMemberAge())
+			.or(member.age.eq(cursor.getLastMemberAge()).and(member.id.gt(cursor.getLastMemberId())));
+	}
+
+	private QueryTemplateCache<Integer>.QueryTemplate searchTemplate(int shape) {
+		return searchTemplates.get(shape, () -> jpaQueryFactory
+			.select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"), team.id.as("team_id"), team.name.as("team_name")
+			))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				(shape & HAS_MEMBER_NAME) != 0 ? member.name.eq(MEMBER_NAME) : null,
+				(shape & HAS_TEAM_NAME) != 0 ? team.name.eq(TEAM_NAME) : null,
+				member.age.between(AGE_GOE, AGE_LOE)
+			));
+	}
+
 	private BooleanExpression equalsMemberName(String memberName) {
 		return hasText(memberName) ? member.name.eq(memberName) : null;
 	}
@@ -4,15 +4,21 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.Member;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
 import study.querydsl.dto.querydsl.QMemberTeamDto;
+import study.querydsl.repository.statistics.MemberCountEstimator;
+import study.querydsl.repository.support.ChunkedBulkExecutor;
+import study.querydsl.repository.support.ChunkedBulkResult;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.domain.QMember.member;
@@ -20,8 +26,14 @@ import static study.querydsl.domain.QTeam.team;
 
 @Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
-	public MemberTestRepository() {
+	private final MemberCountEstimator memberCountEstimator;
+
+	private final ChunkedBulkExecutor chunkedBulkExecutor;
+
+	public MemberTestRepository(MemberCountEstimator memberCountEstimator, ChunkedBulkExecutor chunkedBulkExecutor) {
 		super(Member.class);
+		this.memberCountEstimator = memberCountEstimator;
+		this.chunkedBulkExecutor = chunkedBulkExecutor;
 	}
 
 	public List<Member> basicSelect() {
@@ -34,6 +46,27 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
 		return selectFrom(member).fetch();
 	}
 
+	// 전체 회원을 batchSize 단위로 처리하는 배치 작업 (처리한 회원 수를 반환한다)
+	@Transactional
+	public long processAllMembers(int batchSize, Consumer<Member> processor) {
+		return forEach(queryFactory -> queryFactory
+			.selectFrom(member)
+			.orderBy(member.id.asc()), batchSize, processor);
+	}
+
+	// QuerydslMiddleTest의 bulkUpdate, bulkAdd, bulkDelete를 식별자 범위 chunk 단위로 나누어 실행한다
+	public ChunkedBulkResult bulkUpdateName(String name, int ageLessThan) {
+		return chunkedBulkExecutor.update(member, member.id, member.age.lt(ageLessThan), update -> update.set(member.name, name));
+	}
+
+	public ChunkedBulkResult bulkAddAge(int amount) {
+		return chunkedBulkExecutor.update(member, member.id, null, update -> update.set(member.age, member.age.add(amount)));
+	}
+
+	public ChunkedBulkResult bulkDeleteOlderThan(int age) {
+		return chunkedBulkExecutor.delete(member, member.id, member.age.gt(age));
+	}
+
 	public Page<Member> searchPageByApplyPage(MemberSearchCondition condition, Pageable pageable) {
 		JPAQuery<Member> jpaQuery = selectFrom(member)
 			.leftJoin(member.team, team)
@@ -86,6 +119,44 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
 		);
 	}
 
+	public Slice<MemberTeamDto> applySlicing(MemberSearchCondition condition, Pageable pageable) {
+		return applySlicing(pageable, contentQuery ->
+			select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"),
+				team.id.as("team_id"), team.name.as("team_name")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
+			)
+		);
+	}
+
+	public Page<MemberTeamDto> applyPaginationEstimated(MemberSearchCondition condition, Pageable pageable) {
+		return applyPagination(pageable, contentQuery ->
+			select(new QMemberTeamDto(
+				member.id.as("member_id"), member.name.as("member_name"), member.age.as("member_age"),
+				team.id.as("team_id"), team.name.as("team_name")))
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
+			), countQuery ->
+			select(member.id)
+			.from(member)
+			.leftJoin(member.team, team)
+			.where(
+				equalsMemberName(condition.getMemberName()),
+				equalsTeamName(condition.getTeamName()),
+				betweenAge(condition.getAgeGoe(), condition.getAgeLoe())
+			), () -> memberCountEstimator.estimate(condition)
+		);
+	}
+
 	private BooleanExpression equalsMemberName(String memberName) {
 		return hasText(memberName) ? member.name.eq(memberName) : null;
 	}
@@ -0,0 +1,40 @@
+package study.querydsl.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.support.IndexAdvice;
+import study.querydsl.repository.support.IndexAdvisor;
+
+import java.util.List;
+
+// querydsl.index-advisor.enabled=true 로 실행하면 시작 시 MemberRepository.search의 모든 shape을 EXPLAIN 하여
+// 인덱스를 사용하지 못하고 테이블을 스캔하는 shape을 경고한다
+@Slf4j
+@ConditionalOnProperty(prefix = "querydsl.index-advisor", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Component
+public class SearchIndexAdvisorRunner implements ApplicationRunner {
+	private final MemberRepositoryImpl memberRepositoryImpl;
+
+	private final IndexAdvisor indexAdvisor;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		memberRepositoryImpl.registerSearchShapes();
+		List<IndexAdvice> advices = indexAdvisor.advise(memberRepositoryImpl.getSearchTemplates());
+
+		for (IndexAdvice advice : advices) {
+			if (advice.isTableScan()) {
+				log.warn("search shape {} scans a table: {}\n{}", advice.getShape(), advice.getJpql(), advice.getPlan());
+			} else {
+				log.info("search shape {} uses indexes: {}", advice.getShape(), advice.getJpql());
+			}
+		}
+		log.info("index advisor finished: {} of {} search shapes scan a table",
+			advices.stream().filter(IndexAdvice::isTableScan).count(), advices.size());
+	}
+}
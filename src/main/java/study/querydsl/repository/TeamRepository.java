@@ -0,0 +1,21 @@
+package study.querydsl.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import study.querydsl.domain.Team;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+	// cache 프로필에서는 쿼리 결과가 team-query region에 캐싱된다
+	// team 테이블이 변경되면(Bulk 연산 포함) Hibernate가 update timestamp를 비교하여 캐싱된 결과를 무효화한다
+	@QueryHints({
+		@QueryHint(name = CACHEABLE, value = "true"),
+		@QueryHint(name = CACHE_REGION, value = "team-query")
+	})
+	List<Team> findByName(String name);
+}
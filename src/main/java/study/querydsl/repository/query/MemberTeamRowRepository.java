@@ -0,0 +1,84 @@
+package study.querydsl.repository.query;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamColumns;
+import study.querydsl.dto.querydsl.MemberTeamRowHandler;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+
+// MemberJpaRepository.searchByBuilder와 같은 검색(입력된 조건만 적용)을 JDBC로 실행하여 row를 객체로 만들지 않고 바로 전달한다
+// Hibernate의 Object[] row, boxing된 id/age, QMemberTeamDto 생성자 호출이 모두 생략된다
+@Repository
+public class MemberTeamRowRepository {
+	private static final String SELECT = "select m.member_id, m.name, m.age, t.team_id, t.name"
+		+ " from member m left join team t on m.team_id = t.team_id";
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public MemberTeamRowRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Transactional(readOnly = true)
+	public MemberTeamColumns searchColumns(MemberSearchCondition condition, int fetchSize) {
+		MemberTeamColumns columns = new MemberTeamColumns(INITIAL_CAPACITY);
+		search(condition, fetchSize, columns);
+		return columns;
+	}
+
+	// 조회되는 대로 handler로 전달하므로 결과 전체를 메모리에 모으지 않는다
+	@Transactional(readOnly = true)
+	public long search(MemberSearchCondition condition, int fetchSize, MemberTeamRowHandler handler) {
+		long[] count = new long[1];
+		jdbcTemplate.query(statement(condition, fetchSize), resultSet -> {
+			long teamId = resultSet.getLong(4);
+			if (resultSet.wasNull()) {
+				teamId = MemberTeamColumns.NO_TEAM;
+			}
+			handler.onRow(resultSet.getLong(1), resultSet.getString(2), resultSet.getInt(3), teamId, resultSet.getString(5));
+			++count[0];
+		});
+		return count[0];
+	}
+
+	private PreparedStatementCreator statement(MemberSearchCondition condition, int fetchSize) {
+		StringBuilder sql = new StringBuilder(SELECT);
+		List<Object> args = new ArrayList<>();
+		if (hasText(condition.getMemberName())) {
+			where(sql, args, "m.name = ?", condition.getMemberName());
+		}
+		if (hasText(condition.getTeamName())) {
+			where(sql, args, "t.name = ?", condition.getTeamName());
+		}
+		if (condition.getAgeGoe() != null) {
+			where(sql, args, "m.age >= ?", condition.getAgeGoe());
+		}
+		if (condition.getAgeLoe() != null) {
+			where(sql, args, "m.age <= ?", condition.getAgeLoe());
+		}
+
+		return connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql.toString());
+			statement.setFetchSize(fetchSize);
+			for (int i = 0; i < args.size(); ++i) {
+				statement.setObject(i + 1, args.get(i));
+			}
+			return statement;
+		};
+	}
+
+	private void where(StringBuilder sql, List<Object> args, String predicate, Object arg) {
+		sql.append(args.isEmpty() ? " where " : " and ").append(predicate);
+		args.add(arg);
+	}
+}
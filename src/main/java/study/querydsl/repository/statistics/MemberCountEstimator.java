@@ -0,0 +1,80 @@
+package study.querydsl.repository.statistics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberStatisticsDto;
+import study.querydsl.repository.support.CountEstimate;
+
+import static org.springframework.util.StringUtils.hasText;
+
+// 팀별, 나이구간별 회원수(member_statistics)로 검색결과의 total count를 추정한다
+// 추정값이 threshold보다 작으면 정확한 count가 저렴하므로 null을 반환하여 정확한 count를 사용하게 한다
+@Component
+public class MemberCountEstimator {
+	private static final int MIN_AGE = 0;
+
+	private static final int MAX_AGE = 100;
+
+	private final MemberStatisticsRepository memberStatisticsRepository;
+
+	private final boolean enabled;
+
+	private final long threshold;
+
+	private final int bucketWidth;
+
+	public MemberCountEstimator(MemberStatisticsRepository memberStatisticsRepository,
+								MemberStatisticsMaintainer memberStatisticsMaintainer,
+								@Value("${querydsl.count-estimate.enabled:false}") boolean enabled,
+								@Value("${querydsl.count-estimate.threshold:100000}") long threshold) {
+		this.memberStatisticsRepository = memberStatisticsRepository;
+		this.enabled = enabled;
+		this.threshold = threshold;
+		this.bucketWidth = memberStatisticsMaintainer.getBucketWidth();
+	}
+
+	public CountEstimate estimate(MemberSearchCondition condition) {
+		// 회원명 조건은 선택도가 높아서 추정이 부정확하고 정확한 count도 저렴하다
+		if (!enabled || hasText(condition.getMemberName())) {
+			return null;
+		}
+
+		int ageGoe = condition.getAgeGoe() != null ? condition.getAgeGoe() : MIN_AGE;
+		int ageLoe = condition.getAgeLoe() != null ? condition.getAgeLoe() : MAX_AGE;
+
+		double estimate = 0;
+		double errorBound = 0;
+		for (MemberStatisticsDto bucket : memberStatisticsRepository.findBucketStatistics()) {
+			if (hasText(condition.getTeamName()) && !condition.getTeamName().equals(bucket.getTeamName())) {
+				continue;
+			}
+
+			int bucketStart = bucket.getAgeBucket() * bucketWidth;
+			int bucketEnd = bucketStart + bucketWidth - 1;
+			int overlapStart = Math.max(bucketStart, ageGoe);
+			int overlapEnd = Math.min(bucketEnd, ageLoe);
+			if (overlapStart > overlapEnd) {
+				continue;
+			}
+
+			// 구간의 실제 최소/최대 나이로 구간 전체가 포함되는지, 전혀 포함되지 않는지 판단할 수 있다
+			if (bucket.getMinAge() > ageLoe || bucket.getMaxAge() < ageGoe) {
+				continue;
+			}
+			if (bucket.getMinAge() >= ageGoe && bucket.getMaxAge() <= ageLoe) {
+				estimate += bucket.getMemberCount();
+			} else {
+				// 구간의 일부만 포함되면 구간 안에서 나이가 고르게 분포한다고 가정한다
+				// 실제값은 0 ~ 구간의 회원수 사이이므로 구간의 회원수만큼 오차가 생길 수 있다
+				estimate += bucket.getMemberCount() * (overlapEnd - overlapStart + 1) / (double) bucketWidth;
+				errorBound += bucket.getMemberCount();
+			}
+		}
+
+		if (estimate < threshold) {
+			return null;
+		}
+		return new CountEstimate(Math.round(estimate), (long) Math.ceil(errorBound));
+	}
+}
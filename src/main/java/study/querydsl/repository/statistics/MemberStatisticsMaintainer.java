@@ -0,0 +1,484 @@
+package study.querydsl.repository.statistics;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.MemberStatisticsId;
+import study.querydsl.domain.Team;
+import study.querydsl.repository.support.BulkWriteInterceptor;
+import study.querydsl.repository.support.TableChangeTracker;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static study.querydsl.domain.QMember.member;
+
+// Member의 insert/update/delete 이벤트마다 팀별, 나이구간별 증감분을 모아두었다가 커밋 직전에 member_statistics에 반영한다
+// JPA 콜백(@PostUpdate)은 변경 전 값을 알 수 없으므로 이전 상태(oldState)를 제공하는 Hibernate 이벤트 리스너를 사용한다
+// 증감분은 구간 row를 update/insert 하면서 그 row만 잠그므로, 다른 구간을 변경하는 트랜잭션끼리는 서로 기다리지 않는다
+// 엔티티 이벤트가 없는 Bulk 연산, JDBC 적재는 BulkWriteInterceptor로 실행하면 scope에 해당하는 row만 전후로 비교하여 증감분을 만든다
+// 그 밖의 경로로 변경되었다면 커밋 후 별도 스레드에서 member 테이블과 비교하여 차이만 보정한다 (실행 대기중인 보정은 하나로 합친다)
+@Slf4j
+@Component
+public class MemberStatisticsMaintainer implements BulkWriteInterceptor, DisposableBean {
+	private static final String MEMBER_TABLE = "member";
+
+	private static final String UPDATE_DELTA =
+		"update member_statistics set member_count = member_count + ?, age_sum = age_sum + ?, "
+			+ "min_age = least(min_age, ?), max_age = greatest(max_age, ?) where team_id = ? and age_bucket = ?";
+
+	private static final String INSERT_BUCKET =
+		"insert into member_statistics (team_id, age_bucket, member_count, age_sum, min_age, max_age) values (?, ?, ?, ?, ?, ?)";
+
+	private static final String DELETE_EMPTY_BUCKET =
+		"delete from member_statistics where team_id = ? and age_bucket = ? and member_count <= 0";
+
+	// 여러 구간을 변경하는 트랜잭션끼리 교착상태에 빠지지 않도록 항상 같은 순서로 구간 row를 잠근다
+	private static final Comparator<MemberStatisticsId> BUCKET_ORDER =
+		Comparator.comparing(MemberStatisticsId::getTeamId).thenComparing(MemberStatisticsId::getAgeBucket);
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final JPAQueryFactory jpaQueryFactory;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TableChangeTracker tableChangeTracker;
+
+	private final int bucketWidth;
+
+	private final String refreshMinMaxSql;
+
+	private final String reconcileSql;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ExecutorService reconcileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "member-statistics-reconcile");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+
+	// Member 엔티티의 Pre 이벤트와 Post 이벤트 사이(= Hibernate가 엔티티 단위로 SQL을 전송하는 중)에만 설정된다
+	// SQL 모양이 아니라 실제로 엔티티 이벤트가 발생했는지로 구분하므로, 식별자 조건의 Bulk 연산도 보정 대상이 된다
+	private final ThreadLocal<Boolean> entityWriteInProgress = new ThreadLocal<>();
+
+	// BulkWriteInterceptor로 실행중인 작업의 SQL은 scope의 전후 비교로 반영되므로 보정하지 않는다
+	private final ThreadLocal<Boolean> bulkWriteInProgress = new ThreadLocal<>();
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public MemberStatisticsMaintainer(EntityManagerFactory entityManagerFactory, JPAQueryFactory jpaQueryFactory,
+									  JdbcTemplate jdbcTemplate, TableChangeTracker tableChangeTracker,
+									  PlatformTransactionManager transactionManager,
+									  @Value("${querydsl.statistics.age-bucket-width:10}") int bucketWidth) {
+		this.entityManagerFactory = entityManagerFactory;
+		this.jpaQueryFactory = jpaQueryFactory;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.jdbcTemplate = jdbcTemplate;
+		this.tableChangeTracker = tableChangeTracker;
+		this.bucketWidth = bucketWidth;
+		// 구간 폭은 GROUP BY 절과 SELECT 절이 같은 식이어야 하므로 파라미터가 아닌 상수로 넣는다
+		this.refreshMinMaxSql = "update member_statistics s set "
+			+ "min_age = (select min(m.age) from member m where coalesce(m.team_id, 0) = s.team_id and m.age / " + bucketWidth + " = s.age_bucket), "
+			+ "max_age = (select max(m.age) from member m where coalesce(m.team_id, 0) = s.team_id and m.age / " + bucketWidth + " = s.age_bucket) "
+			+ "where s.team_id = ? and s.age_bucket = ?";
+		// member 집계와 통계 테이블을 하나의 SQL로 비교하므로 같은 시점의 커밋된 데이터끼리 비교된다
+		// 증감분은 회원 변경과 같은 트랜잭션에서 커밋되므로, 차이는 증감분으로 반영되지 않은 변경만큼만 생긴다
+		this.reconcileSql = "select team_id, age_bucket, sum(member_count), sum(age_sum) from ("
+			+ "select coalesce(team_id, 0) team_id, age / " + bucketWidth + " age_bucket, count(*) member_count, sum(age) age_sum, "
+			+ "min(age) min_age, max(age) max_age, cast(null as int) stored_min_age, cast(null as int) stored_max_age "
+			+ "from member group by coalesce(team_id, 0), age / " + bucketWidth + " "
+			+ "union all "
+			+ "select team_id, age_bucket, -member_count, -age_sum, cast(null as int), cast(null as int), min_age, max_age "
+			+ "from member_statistics"
+			+ ") d group by team_id, age_bucket "
+			+ "having sum(member_count) <> 0 or sum(age_sum) <> 0 "
+			+ "or coalesce(max(min_age), " + Integer.MIN_VALUE + ") <> coalesce(max(stored_min_age), " + Integer.MIN_VALUE + ") "
+			+ "or coalesce(max(max_age), " + Integer.MIN_VALUE + ") <> coalesce(max(stored_max_age), " + Integer.MIN_VALUE + ")";
+	}
+
+	@PostConstruct
+	public void registerListeners() {
+		EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+			.getServiceRegistry()
+			.getService(EventListenerRegistry.class);
+		MemberChangeListener listener = new MemberChangeListener();
+		registry.appendListeners(EventType.PRE_INSERT, listener);
+		registry.appendListeners(EventType.PRE_UPDATE, listener);
+		registry.appendListeners(EventType.PRE_DELETE, listener);
+		registry.appendListeners(EventType.POST_INSERT, listener);
+		registry.appendListeners(EventType.POST_UPDATE, listener);
+		registry.appendListeners(EventType.POST_DELETE, listener);
+
+		tableChangeTracker.addListener((table, sql) -> {
+			if (!MEMBER_TABLE.equals(table)) {
+				return;
+			}
+			// 엔티티 이벤트로 전송된 SQL은 증감분으로 반영되므로 보정하지 않는다 (하나의 이벤트는 하나의 SQL에만 사용한다)
+			if (sql != null && entityWriteInProgress.get() != null) {
+				entityWriteInProgress.remove();
+				return;
+			}
+			if (bulkWriteInProgress.get() != null) {
+				return;
+			}
+			markReconcile();
+		});
+	}
+
+	public int getBucketWidth() {
+		return bucketWidth;
+	}
+
+	// scope에 해당하는 회원을 statement 실행 전후로 (팀, 나이)별로 세어서, 달라진 만큼만 증감분으로 반영한다
+	// 비교 비용은 scope의 row 수에 비례한다 (ex. ChunkedBulkExecutor의 chunk 하나)
+	@Override
+	public long execute(EntityPath<?> entity, Predicate scope, LongSupplier statement) {
+		if (!Member.class.equals(entity.getType())) {
+			return statement.getAsLong();
+		}
+		// 실행 전에 영속성 컨텍스트의 변경을 먼저 보내야, 그 변경이 엔티티 이벤트와 전후 비교에 중복으로 반영되지 않는다
+		if (entityManager.isJoinedToTransaction()) {
+			entityManager.flush();
+		}
+
+		Map<Long, Map<Integer, Long>> counts = new TreeMap<>();
+		countByTeamAndAge(scope, counts, -1);
+		long rows;
+		bulkWriteInProgress.set(Boolean.TRUE);
+		try {
+			rows = statement.getAsLong();
+		} finally {
+			bulkWriteInProgress.remove();
+		}
+		countByTeamAndAge(scope, counts, 1);
+
+		counts.forEach((teamId, ages) -> ages.forEach((age, count) -> {
+			if (count != 0) {
+				record(teamId, age, Math.abs(count), Long.signum(count));
+			}
+		}));
+		return rows;
+	}
+
+	// 같은 트랜잭션 안에서 통계를 조회해야 할 때(ex. 테스트) 커밋을 기다리지 않고 지금까지의 변경을 반영한다
+	public void flush() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		entityManager.flush();
+		PendingStatistics pending = (PendingStatistics) TransactionSynchronizationManager.getResource(this);
+		if (pending != null) {
+			applyDeltas(pending);
+			if (pending.reconcile) {
+				reconcile();
+				pending.reconcile = false;
+			}
+		}
+	}
+
+	// member 테이블을 집계한 값과 통계 테이블이 다른 구간만 차이만큼 보정한다
+	// 보정도 증감분과 같은 방식으로 더하므로, 비교 이후에 커밋된 다른 트랜잭션의 증감분과 섞여도 유실되지 않는다
+	public void reconcile() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Map<MemberStatisticsId, Delta> corrections = new TreeMap<>(BUCKET_ORDER);
+			jdbcTemplate.query(reconcileSql, rs -> {
+				Delta delta = new Delta();
+				delta.correct(rs.getLong(3), rs.getLong(4));
+				corrections.put(new MemberStatisticsId(rs.getLong(1), rs.getInt(2)), delta);
+			});
+			corrections.forEach(this::applyDelta);
+			log.debug("member_statistics reconciled: {} buckets", corrections.size());
+		});
+	}
+
+	@Override
+	public void destroy() {
+		reconcileExecutor.shutdownNow();
+	}
+
+	// 이미 대기중인 보정이 있다면 그 보정이 이번 변경까지 반영하므로 다시 등록하지 않는다
+	private void scheduleReconcile() {
+		if (reconcileQueued.compareAndSet(false, true)) {
+			reconcileExecutor.execute(() -> {
+				reconcileQueued.set(false);
+				try {
+					reconcile();
+				} catch (PessimisticLockingFailureException e) {
+					// 같은 구간을 변경하는 트랜잭션이 잠금을 오래 잡고 있다면 다시 시도한다
+					log.debug("member_statistics reconcile is waiting for a bucket lock", e);
+					scheduleReconcile();
+				} catch (RuntimeException e) {
+					log.warn("member_statistics reconcile failed", e);
+				}
+			});
+		}
+	}
+
+	private void countByTeamAndAge(Predicate scope, Map<Long, Map<Integer, Long>> counts, int sign) {
+		List<Tuple> rows = jpaQueryFactory
+			.select(member.team.id, member.age, member.count())
+			.from(member)
+			.where(scope)
+			.groupBy(member.team.id, member.age)
+			.fetch();
+		for (Tuple row : rows) {
+			Long teamId = row.get(member.team.id);
+			counts.computeIfAbsent(teamId != null ? teamId : MemberStatisticsId.NO_TEAM, key -> new TreeMap<>())
+				.merge(row.get(member.age), sign * row.get(member.count()), Long::sum);
+		}
+	}
+
+	private void record(Long teamId, int age, long count, int sign) {
+		MemberStatisticsId id = new MemberStatisticsId(teamId != null ? teamId : MemberStatisticsId.NO_TEAM, age / bucketWidth);
+		// 트랜잭션 밖의 변경은 모아둘 곳이 없으므로 바로 반영한다
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			Delta delta = new Delta();
+			delta.add(age, count, sign);
+			transactionTemplate.executeWithoutResult(status -> applyDelta(id, delta));
+			return;
+		}
+		pending().deltas.computeIfAbsent(id, key -> new Delta()).add(age, count, sign);
+	}
+
+	private void markReconcile() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			reconcile();
+			return;
+		}
+		pending().reconcile = true;
+	}
+
+	private PendingStatistics pending() {
+		PendingStatistics pending = (PendingStatistics) TransactionSynchronizationManager.getResource(this);
+		if (pending == null) {
+			pending = new PendingStatistics();
+			TransactionSynchronizationManager.bindResource(this, pending);
+			TransactionSynchronizationManager.registerSynchronization(new StatisticsSynchronization(pending));
+		}
+		return pending;
+	}
+
+	// 구간 잠금을 얻지 못하면 사용자의 트랜잭션을 실패시키지 않고 커밋 후에 보정한다
+	// 일부 구간만 반영되었더라도 보정은 member 테이블과의 차이를 반영하므로 중복되지 않는다
+	private void applyDeltas(PendingStatistics pending) {
+		try {
+			pending.deltas.forEach(this::applyDelta);
+		} catch (PessimisticLockingFailureException e) {
+			log.debug("member_statistics bucket is locked, reconcile after commit", e);
+			pending.reconcile = true;
+		}
+		pending.deltas.clear();
+	}
+
+	private void applyDelta(MemberStatisticsId id, Delta delta) {
+		if (delta.count == 0 && delta.sum == 0 && !delta.removed) {
+			return;
+		}
+
+		int updated = jdbcTemplate.update(UPDATE_DELTA, delta.count, delta.sum, delta.min, delta.max, id.getTeamId(), id.getAgeBucket());
+		if (updated == 0 && delta.count > 0) {
+			try {
+				jdbcTemplate.update(INSERT_BUCKET, id.getTeamId(), id.getAgeBucket(), delta.count, delta.sum, delta.min, delta.max);
+			} catch (DuplicateKeyException e) {
+				// 다른 트랜잭션이 같은 구간을 먼저 추가했다면 그 행에 더한다 (사용자의 트랜잭션은 실패시키지 않는다)
+				jdbcTemplate.update(UPDATE_DELTA, delta.count, delta.sum, delta.min, delta.max, id.getTeamId(), id.getAgeBucket());
+			}
+		}
+		// 최소/최대값은 빼는 방식으로 갱신할 수 없으므로 회원이 빠진 구간만 다시 계산한다
+		if (delta.removed) {
+			jdbcTemplate.update(refreshMinMaxSql, id.getTeamId(), id.getAgeBucket());
+			jdbcTemplate.update(DELETE_EMPTY_BUCKET, id.getTeamId(), id.getAgeBucket());
+		}
+	}
+
+	private class StatisticsSynchronization implements TransactionSynchronization {
+		private final PendingStatistics pending;
+
+		private StatisticsSynchronization(PendingStatistics pending) {
+			this.pending = pending;
+		}
+
+		// beforeCommit 이후에 일어나는 flush의 이벤트는 놓치게 되므로 먼저 flush 한다
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			entityManager.flush();
+			applyDeltas(pending);
+		}
+
+		@Override
+		public void afterCommit() {
+			if (pending.reconcile) {
+				scheduleReconcile();
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(MemberStatisticsMaintainer.this);
+		}
+	}
+
+	private class MemberChangeListener implements PreInsertEventListener, PreUpdateEventListener, PreDeleteEventListener,
+		PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+		@Override
+		public boolean onPreInsert(PreInsertEvent event) {
+			startEntityWrite(event.getEntity());
+			return false;
+		}
+
+		@Override
+		public boolean onPreUpdate(PreUpdateEvent event) {
+			startEntityWrite(event.getEntity());
+			return false;
+		}
+
+		@Override
+		public boolean onPreDelete(PreDeleteEvent event) {
+			startEntityWrite(event.getEntity());
+			return false;
+		}
+
+		@Override
+		public void onPostInsert(PostInsertEvent event) {
+			if (event.getEntity() instanceof Member) {
+				entityWriteInProgress.remove();
+				record(event.getPersister(), event.getState(), 1);
+			}
+		}
+
+		@Override
+		public void onPostUpdate(PostUpdateEvent event) {
+			if (!(event.getEntity() instanceof Member)) {
+				return;
+			}
+			entityWriteInProgress.remove();
+			// merge 없이 update 되어 이전 상태를 모른다면 증감을 계산할 수 없다
+			if (event.getOldState() == null) {
+				markReconcile();
+				return;
+			}
+			// 이름만 바뀐 경우처럼 팀과 나이가 그대로라면 통계는 변하지 않는다
+			if (Objects.equals(teamId(event.getPersister(), event.getOldState()), teamId(event.getPersister(), event.getState()))
+				&& age(event.getPersister(), event.getOldState()) == age(event.getPersister(), event.getState())) {
+				return;
+			}
+			record(event.getPersister(), event.getOldState(), -1);
+			record(event.getPersister(), event.getState(), 1);
+		}
+
+		@Override
+		public void onPostDelete(PostDeleteEvent event) {
+			if (event.getEntity() instanceof Member) {
+				entityWriteInProgress.remove();
+				record(event.getPersister(), event.getDeletedState(), -1);
+			}
+		}
+
+		@Override
+		public boolean requiresPostCommitHanding(EntityPersister persister) {
+			return false;
+		}
+
+		// batch insert/update는 같은 SQL을 한번만 준비하므로, 준비되지 않은 row는 Post 이벤트에서 해제된다
+		private void startEntityWrite(Object entity) {
+			if (entity instanceof Member) {
+				entityWriteInProgress.set(Boolean.TRUE);
+			}
+		}
+
+		private void record(EntityPersister persister, Object[] state, int sign) {
+			MemberStatisticsMaintainer.this.record(teamId(persister, state), age(persister, state), 1, sign);
+		}
+
+		// 프록시의 식별자 조회는 초기화를 일으키지 않는다
+		private Long teamId(EntityPersister persister, Object[] state) {
+			Team team = (Team) state[persister.getEntityMetamodel().getPropertyIndex("team")];
+			return team != null ? team.getId() : MemberStatisticsId.NO_TEAM;
+		}
+
+		private int age(EntityPersister persister, Object[] state) {
+			return (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+		}
+	}
+
+	private static class PendingStatistics {
+		private final Map<MemberStatisticsId, Delta> deltas = new TreeMap<>(BUCKET_ORDER);
+
+		private boolean reconcile;
+	}
+
+	private static class Delta {
+		private long count;
+
+		private long sum;
+
+		private int min = Integer.MAX_VALUE;
+
+		private int max = Integer.MIN_VALUE;
+
+		private boolean removed;
+
+		private void add(int age, long rows, int sign) {
+			count += sign * rows;
+			sum += sign * rows * age;
+			if (sign > 0) {
+				min = Math.min(min, age);
+				max = Math.max(max, age);
+			} else {
+				removed = true;
+			}
+		}
+
+		// 보정할 구간은 최소/최대값도 달라졌을 수 있으므로 다시 계산한다
+		private void correct(long rows, long ageSum) {
+			count += rows;
+			sum += ageSum;
+			removed = true;
+		}
+	}
+}
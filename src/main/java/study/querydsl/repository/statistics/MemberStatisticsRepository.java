@@ -0,0 +1,52 @@
+package study.querydsl.repository.statistics;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.querydsl.MemberStatisticsDto;
+import study.querydsl.dto.querydsl.QMemberStatisticsDto;
+import study.querydsl.dto.querydsl.QTeamStatisticsDto;
+import study.querydsl.dto.querydsl.TeamStatisticsDto;
+
+import java.util.List;
+
+import static study.querydsl.domain.QMemberStatistics.memberStatistics;
+import static study.querydsl.domain.QTeam.team;
+
+// 통계 테이블은 (팀 수 x 나이구간 수) 만큼의 row만 가지므로 member 테이블을 집계하지 않고 조회한다
+@Transactional(readOnly = true)
+@Repository
+public class MemberStatisticsRepository {
+	private final JPAQueryFactory jpaQueryFactory;
+
+	public MemberStatisticsRepository(JPAQueryFactory jpaQueryFactory) {
+		this.jpaQueryFactory = jpaQueryFactory;
+	}
+
+	// 팀별 회원수, 나이 합계/최소/최대 (평균은 TeamStatisticsDto.getAverageAge)
+	public List<TeamStatisticsDto> findTeamStatistics() {
+		return jpaQueryFactory
+			.select(new QTeamStatisticsDto(
+				memberStatistics.id.teamId, team.name,
+				memberStatistics.memberCount.sum(), memberStatistics.ageSum.sum(),
+				memberStatistics.minAge.min(), memberStatistics.maxAge.max()))
+			.from(memberStatistics)
+			.leftJoin(team).on(team.id.eq(memberStatistics.id.teamId))
+			.groupBy(memberStatistics.id.teamId, team.name)
+			.orderBy(memberStatistics.id.teamId.asc())
+			.fetch();
+	}
+
+	// 팀별, 나이구간별 통계
+	public List<MemberStatisticsDto> findBucketStatistics() {
+		return jpaQueryFactory
+			.select(new QMemberStatisticsDto(
+				memberStatistics.id.teamId, team.name, memberStatistics.id.ageBucket,
+				memberStatistics.memberCount, memberStatistics.ageSum,
+				memberStatistics.minAge, memberStatistics.maxAge))
+			.from(memberStatistics)
+			.leftJoin(team).on(team.id.eq(memberStatistics.id.teamId))
+			.orderBy(memberStatistics.id.teamId.asc(), memberStatistics.id.ageBucket.asc())
+			.fetch();
+	}
+}
@@ -0,0 +1,31 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// ChunkedBulkExecutor가 chunk 하나를 커밋할 때마다 전달하는 진행상황
+@ToString
+@Getter
+public class BulkProgress {
+	private final String operation;
+
+	private final int chunk;
+
+	private final int totalChunks;
+
+	private final long affectedRows;
+
+	private final long lastId;
+
+	public BulkProgress(String operation, int chunk, int totalChunks, long affectedRows, long lastId) {
+		this.operation = operation;
+		this.chunk = chunk;
+		this.totalChunks = totalChunks;
+		this.affectedRows = affectedRows;
+		this.lastId = lastId;
+	}
+
+	public double getPercent() {
+		return totalChunks == 0 ? 100.0 : chunk * 100.0 / totalChunks;
+	}
+}
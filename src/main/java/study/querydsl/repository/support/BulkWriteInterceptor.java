@@ -0,0 +1,16 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+
+import java.util.function.LongSupplier;
+
+// Bulk 연산, JDBC 적재처럼 엔티티 이벤트 없이 여러 row를 변경하는 작업을 변경 대상 범위(scope)와 함께 실행한다
+// 구현체(ex. 통계)는 scope에 해당하는 row만 작업 전후로 비교하므로 테이블 전체를 다시 집계하지 않아도 된다
+// scope는 작업 전후에 같은 row를 가리켜야 한다 (ex. 식별자 범위) -> 작업이 변경하는 컬럼을 조건으로 사용하면 안된다
+@FunctionalInterface
+public interface BulkWriteInterceptor {
+	BulkWriteInterceptor NONE = (entity, scope, statement) -> statement.getAsLong();
+
+	long execute(EntityPath<?> entity, Predicate scope, LongSupplier statement);
+}
@@ -0,0 +1,138 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// update(member)...execute() 처럼 조건에 맞는 모든 row를 한번에 변경하면 긴 시간동안 lock을 잡고 undo log가 커진다
+// 조건에 맞는 row의 식별자 범위를 chunkSize 단위로 나누어 chunk마다 별도의 트랜잭션으로 커밋하고, chunk 사이에 잠시 쉰다
+// Bulk 연산은 조인을 사용할 수 없으므로 predicate는 대상 엔티티의 컬럼만 사용해야 한다
+// chunk마다 식별자 범위를 scope로 BulkWriteInterceptor를 거치므로, 통계처럼 변경을 따라가는 쪽은 chunk 범위만 비교하여 증감분을 반영한다
+// chunk는 호출한 쪽의 트랜잭션과 분리되므로, 커밋되지 않은 변경을 보지 못하고 그 lock을 기다리게 된다 -> 쓰기 트랜잭션 안에서는 실행하지 않는다
+@Slf4j
+@Component
+public class ChunkedBulkExecutor {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final JPAQueryFactory jpaQueryFactory;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final BulkWriteInterceptor bulkWriteInterceptor;
+
+	private final int chunkSize;
+
+	private final long throttleMillis;
+
+	public ChunkedBulkExecutor(JPAQueryFactory jpaQueryFactory, PlatformTransactionManager transactionManager,
+							   ObjectProvider<BulkWriteInterceptor> bulkWriteInterceptor,
+							   @Value("${querydsl.bulk.chunk-size:1000}") int chunkSize,
+							   @Value("${querydsl.bulk.throttle-millis:10}") long throttleMillis) {
+		this.jpaQueryFactory = jpaQueryFactory;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// 호출한 쪽의 트랜잭션과 관계없이 chunk마다 커밋한다
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.bulkWriteInterceptor = bulkWriteInterceptor.getIfUnique(() -> BulkWriteInterceptor.NONE);
+		this.chunkSize = chunkSize;
+		this.throttleMillis = throttleMillis;
+	}
+
+	public ChunkedBulkResult update(EntityPath<?> entity, NumberPath<Long> id, Predicate predicate,
+									Consumer<JPAUpdateClause> setter) {
+		return update(entity, id, predicate, setter, this::logProgress);
+	}
+
+	public ChunkedBulkResult update(EntityPath<?> entity, NumberPath<Long> id, Predicate predicate,
+									Consumer<JPAUpdateClause> setter, Consumer<BulkProgress> progress) {
+		return execute("update", entity, id, predicate, chunkPredicate -> {
+			JPAUpdateClause update = jpaQueryFactory.update(entity);
+			setter.accept(update);
+			return update.where(predicate, chunkPredicate).execute();
+		}, progress);
+	}
+
+	public ChunkedBulkResult delete(EntityPath<?> entity, NumberPath<Long> id, Predicate predicate) {
+		return delete(entity, id, predicate, this::logProgress);
+	}
+
+	public ChunkedBulkResult delete(EntityPath<?> entity, NumberPath<Long> id, Predicate predicate,
+									Consumer<BulkProgress> progress) {
+		return execute("delete", entity, id, predicate,
+			chunkPredicate -> jpaQueryFactory.delete(entity).where(predicate, chunkPredicate).execute(), progress);
+	}
+
+	private ChunkedBulkResult execute(String operation, EntityPath<?> entity, NumberPath<Long> id, Predicate predicate,
+									  ToLongFunction<Predicate> chunkExecutor, Consumer<BulkProgress> progress) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+			&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			throw new IllegalStateException("Chunked bulk " + operation + " must not run inside a write transaction");
+		}
+		long start = System.currentTimeMillis();
+
+		Tuple range = transactionTemplate.execute(status -> jpaQueryFactory
+			.select(id.min(), id.max())
+			.from(entity)
+			.where(predicate)
+			.fetchOne());
+		Long minId = range != null ? range.get(id.min()) : null;
+		Long maxId = range != null ? range.get(id.max()) : null;
+		if (minId == null || maxId == null) {
+			return new ChunkedBulkResult(operation, 0, 0, System.currentTimeMillis() - start);
+		}
+
+		int totalChunks = (int) ((maxId - minId) / chunkSize + 1);
+		long affectedRows = 0;
+		int chunk = 0;
+		for (long from = minId; from <= maxId; from += chunkSize) {
+			long chunkStart = from;
+			long chunkEnd = Math.min(from + chunkSize - 1, maxId);
+			Long affected = transactionTemplate.execute(status -> {
+				// chunk 트랜잭션의 영속성 컨텍스트만 비운다 (호출한 쪽의 영속성 컨텍스트와는 별개)
+				Predicate chunkPredicate = id.between(chunkStart, chunkEnd);
+				long rows = bulkWriteInterceptor.execute(entity, chunkPredicate, () -> chunkExecutor.applyAsLong(chunkPredicate));
+				entityManager.clear();
+				return rows;
+			});
+			affectedRows += affected != null ? affected : 0;
+			progress.accept(new BulkProgress(operation, ++chunk, totalChunks, affectedRows, chunkEnd));
+
+			if (throttleMillis > 0 && chunkEnd < maxId) {
+				throttle();
+			}
+		}
+
+		return new ChunkedBulkResult(operation, affectedRows, chunk, System.currentTimeMillis() - start);
+	}
+
+	private void throttle() {
+		try {
+			Thread.sleep(throttleMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while throttling bulk chunks", e);
+		}
+	}
+
+	private void logProgress(BulkProgress progress) {
+		log.info("bulk {} progress: chunk {}/{} ({}%), affected={}, lastId={}",
+			progress.getOperation(), progress.getChunk(), progress.getTotalChunks(),
+			String.format("%.1f", progress.getPercent()), progress.getAffectedRows(), progress.getLastId());
+	}
+}
@@ -0,0 +1,23 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@ToString
+@Getter
+public class ChunkedBulkResult {
+	private final String operation;
+
+	private final long affectedRows;
+
+	private final int chunks;
+
+	private final long elapsedMillis;
+
+	public ChunkedBulkResult(String operation, long affectedRows, int chunks, long elapsedMillis) {
+		this.operation = operation;
+		this.affectedRows = affectedRows;
+		this.chunks = chunks;
+		this.elapsedMillis = elapsedMillis;
+	}
+}
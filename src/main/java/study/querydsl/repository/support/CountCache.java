@@ -0,0 +1,106 @@
+package study.querydsl.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+// 검색조건이 같다면 total count는 한동안 변하지 않으므로 count query 결과를 캐싱한다
+// 캐싱할 때의 테이블 버전을 함께 저장하고, 조회 시점의 버전과 다르면(= 테이블이 변경되었으면) 다시 계산한다
+@Component
+public class CountCache {
+	private final TableChangeTracker tableChangeTracker;
+
+	private final boolean enabled;
+
+	private final long ttlMillis;
+
+	private final Map<Key, Entry> entries;
+
+	public CountCache(TableChangeTracker tableChangeTracker,
+					  @Value("${querydsl.count-cache.enabled:true}") boolean enabled,
+					  @Value("${querydsl.count-cache.ttl-millis:60000}") long ttlMillis,
+					  @Value("${querydsl.count-cache.max-size:1000}") int maxSize) {
+		this.tableChangeTracker = tableChangeTracker;
+		this.enabled = enabled;
+		this.ttlMillis = ttlMillis;
+		// access-order LinkedHashMap으로 가장 오래 사용되지 않은 항목부터 제거한다 (LRU)
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	// region은 캐시를 사용하는 쿼리의 이름, key는 정규화된 검색조건, tables는 count에 영향을 주는 테이블 목록
+	public long getCount(String region, Object key, String[] tables, LongSupplier countQuery) {
+		if (!enabled) {
+			return countQuery.getAsLong();
+		}
+
+		Key cacheKey = new Key(region, key);
+		long version = tableChangeTracker.getVersion(tables);
+		long now = System.currentTimeMillis();
+
+		synchronized (entries) {
+			Entry entry = entries.get(cacheKey);
+			if (entry != null && entry.version == version && entry.expiresAt > now) {
+				return entry.count;
+			}
+		}
+
+		long count = countQuery.getAsLong();
+		synchronized (entries) {
+			entries.put(cacheKey, new Entry(count, version, now + ttlMillis));
+		}
+		return count;
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	private static class Key {
+		private final String region;
+
+		private final Object condition;
+
+		private Key(String region, Object condition) {
+			this.region = region;
+			this.condition = condition;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return region.equals(key.region) && Objects.equals(condition, key.condition);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(region, condition);
+		}
+	}
+
+	private static class Entry {
+		private final long count;
+
+		private final long version;
+
+		private final long expiresAt;
+
+		private Entry(long count, long version, long expiresAt) {
+			this.count = count;
+			this.version = version;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+// 추정된 total count와 오차범위 (실제값은 value ± errorBound 안에 있다)
+@ToString
+@Getter
+@RequiredArgsConstructor
+public class CountEstimate {
+	private final long value;
+
+	private final long errorBound;
+}
@@ -0,0 +1,25 @@
+package study.querydsl.repository.support;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+// count query 대신 추정값을 total로 사용한 Page
+// 응답에 estimatedTotal, totalErrorBound가 함께 포함되어 화면에서 "약 1.2M건"처럼 표시할 수 있다
+public class EstimatedPage<T> extends PageImpl<T> {
+	private final long totalErrorBound;
+
+	public EstimatedPage(List<T> content, Pageable pageable, CountEstimate estimate) {
+		super(content, pageable, estimate.getValue());
+		this.totalErrorBound = estimate.getErrorBound();
+	}
+
+	public boolean isEstimatedTotal() {
+		return true;
+	}
+
+	public long getTotalErrorBound() {
+		return totalErrorBound;
+	}
+}
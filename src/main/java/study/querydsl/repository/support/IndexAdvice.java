@@ -0,0 +1,24 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.ToString;
+
+// 검색 shape 하나의 실행계획과 테이블 전체 스캔 여부
+@ToString
+@Getter
+public class IndexAdvice {
+	private final Object shape;
+
+	private final String jpql;
+
+	private final String plan;
+
+	private final boolean tableScan;
+
+	public IndexAdvice(Object shape, String jpql, String plan, boolean tableScan) {
+		this.shape = shape;
+		this.jpql = jpql;
+		this.plan = plan;
+		this.tableScan = tableScan;
+	}
+}
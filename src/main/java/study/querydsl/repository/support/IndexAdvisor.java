@@ -0,0 +1,87 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.dsl.Param;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.internal.ast.ASTQueryTranslatorFactory;
+import org.hibernate.hql.spi.ParameterTranslations;
+import org.hibernate.hql.spi.PositionalParameterInformation;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// QueryTemplateCache에 등록된 shape별 JPQL을 SQL로 변환하여 EXPLAIN 하고, 인덱스 없이 테이블을 스캔하는 shape을 찾는다
+// 실행계획의 형식은 DB마다 다르므로 H2의 tableScan 표기를 기준으로 판단한다
+@Component
+public class IndexAdvisor {
+	private static final String TABLE_SCAN = ".tablescan";
+
+	private final SessionFactoryImplementor sessionFactory;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public IndexAdvisor(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public <K> List<IndexAdvice> advise(QueryTemplateCache<K> templates) {
+		List<IndexAdvice> advices = new ArrayList<>();
+		for (Map.Entry<K, QueryTemplateCache<K>.QueryTemplate> entry : templates.getTemplates().entrySet()) {
+			QueryTemplateCache<K>.QueryTemplate template = entry.getValue();
+			String plan = explain(template.getJpql(), template.getConstantToLabel());
+			advices.add(new IndexAdvice(entry.getKey(), template.getJpql(), plan,
+				plan.toLowerCase(Locale.ROOT).contains(TABLE_SCAN)));
+		}
+		return advices;
+	}
+
+	private String explain(String jpql, Map<Object, String> constantToLabel) {
+		QueryTranslator translator = new ASTQueryTranslatorFactory()
+			.createQueryTranslator(jpql, jpql, Collections.emptyMap(), sessionFactory, null);
+		translator.compile(Collections.emptyMap(), false);
+		String sql = translator.getSQLString();
+
+		// 실행계획만 확인하므로 파라미터에는 타입에 맞는 임의의 값을 바인딩한다
+		Object[] args = new Object[placeholderCount(sql)];
+		ParameterTranslations parameters = translator.getParameterTranslations();
+		for (Map.Entry<Object, String> entry : constantToLabel.entrySet()) {
+			int position = Integer.parseInt(entry.getValue().substring(1));
+			PositionalParameterInformation information = parameters.getPositionalParameterInformation(position);
+			for (int location : information.getSourceLocations()) {
+				args[location] = sampleValue(entry.getKey());
+			}
+		}
+
+		List<String> rows = jdbcTemplate.queryForList("explain " + sql, String.class, args);
+		return String.join("\n", rows);
+	}
+
+	private Object sampleValue(Object constant) {
+		if (!(constant instanceof Param)) {
+			return constant;
+		}
+
+		Class<?> type = ((Param<?>) constant).getType();
+		if (Number.class.isAssignableFrom(type)) {
+			return 0;
+		}
+		return type == String.class ? "" : null;
+	}
+
+	private int placeholderCount(String sql) {
+		int count = 0;
+		for (int i = 0; i < sql.length(); ++i) {
+			if (sql.charAt(i) == '?') {
+				++count;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,21 @@
+package study.querydsl.repository.support;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+// offset 대신 커서를 사용하는 Slice
+// 다음 페이지가 없으면 nextCursor는 null이다
+public class KeysetSlice<T> extends SliceImpl<T> {
+	private final String nextCursor;
+
+	public KeysetSlice(List<T> content, Pageable pageable, boolean hasNext, String nextCursor) {
+		super(content, pageable, hasNext);
+		this.nextCursor = nextCursor;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
@@ -0,0 +1,138 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.metrics.QueryContext;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// count query를 별도의 읽기전용 커넥션에서 실행하는 동안 호출한 스레드에서 content query를 실행한다
+// 페이지 하나에 호출한 쪽과 작업 스레드의 커넥션 2개만 사용한다
+// 실행할 수 없는 상황(비활성화, 쓰기 트랜잭션 진행중, 큐가 가득참)에서는 순차 실행으로 대체하고, count가 타임아웃되면 count만 같은 타임아웃으로 다시 실행한다
+@Component
+public class ParallelPaginationExecutor implements DisposableBean {
+	private static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	private final TransactionTemplate readOnlyTransaction;
+
+	private final boolean enabled;
+
+	private final long timeoutMillis;
+
+	private final ThreadPoolExecutor executor;
+
+	public ParallelPaginationExecutor(EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager,
+									  @Value("${querydsl.parallel-pagination.enabled:false}") boolean enabled,
+									  @Value("${querydsl.parallel-pagination.pool-size:4}") int poolSize,
+									  @Value("${querydsl.parallel-pagination.queue-capacity:100}") int queueCapacity,
+									  @Value("${querydsl.parallel-pagination.timeout-millis:3000}") long timeoutMillis) {
+		this.entityManagerFactory = entityManagerFactory;
+		// Spring 트랜잭션으로 실행해야 readOnly 여부로 복제본에 라우팅된다
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.enabled = enabled;
+		this.timeoutMillis = timeoutMillis;
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+				Thread thread = new Thread(runnable, "parallel-pagination-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	}
+
+	// contentQuery에는 이미 페이징 조건(offset, limit)이 적용되어 있어야 한다
+	// countLoader는 count query를 실행하는 방법(ex. count 캐시)을 결정한다
+	public <T> Page<T> fetchPage(Pageable pageable,
+								 JPAQuery<T> contentQuery,
+								 JPAQuery<?> countQuery,
+								 ToLongFunction<LongSupplier> countLoader,
+								 Supplier<Page<T>> sequential) {
+		if (!isAvailable()) {
+			return sequential.get();
+		}
+
+		// 작업 스레드에서 실행된 SQL도 같은 요청의 통계에 기록한다
+		Supplier<Long> count = QueryContext.propagate(() -> readOnlyTransaction.execute(status -> {
+			EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+			return countLoader.applyAsLong(() -> countQuery.clone(entityManager)
+				.setHint(QUERY_TIMEOUT_HINT, timeoutMillis)
+				.fetchCount());
+		}));
+		Future<Long> total;
+		try {
+			total = executor.submit(count::get);
+		} catch (RejectedExecutionException e) {
+			return sequential.get();
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+		List<T> content;
+		try {
+			content = contentQuery.fetch();
+		} catch (RuntimeException e) {
+			total.cancel(true);
+			throw e;
+		}
+
+		try {
+			long fetchedTotal = total.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			return PageableExecutionUtils.getPage(content, pageable, () -> fetchedTotal);
+		} catch (TimeoutException e) {
+			// 이미 조회한 content는 그대로 사용하고 count만 호출한 스레드에서 실행한다
+			// 다시 실행하는 count도 같은 타임아웃을 적용하여, 부하 상황에서 타임아웃 + 전체 count 만큼 기다리지 않도록 한다
+			total.cancel(true);
+			return PageableExecutionUtils.getPage(content, pageable,
+				() -> countLoader.applyAsLong(() -> countQuery.setHint(QUERY_TIMEOUT_HINT, timeoutMillis).fetchCount()));
+		} catch (InterruptedException e) {
+			total.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for count query", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	// 현재 쓰기 트랜잭션이 진행중이면 아직 커밋되지 않은 데이터를 다른 커넥션에서 볼 수 없으므로 순차 실행해야 한다
+	private boolean isAvailable() {
+		if (!enabled) {
+			return false;
+		}
+		return !TransactionSynchronizationManager.isActualTransactionActive()
+			|| TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+}
@@ -0,0 +1,118 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 동적쿼리는 조건의 값이 아니라 "어떤 조건이 존재하는지(shape)"에 따라서만 JPQL이 달라진다
+// shape별로 Param을 사용한 쿼리를 한번만 JPQL로 직렬화해두고, 이후에는 파라미터만 바인딩하여 실행한다
+// 같은 JPQL 문자열을 사용하므로 Hibernate의 query plan cache도 그대로 재사용된다
+public class QueryTemplateCache<K> {
+	private final EntityManager entityManager;
+
+	private final ConcurrentMap<K, QueryTemplate> templates = new ConcurrentHashMap<>();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	public QueryTemplateCache(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	// queryBuilder는 값 대신 Param을 사용하여 shape에 해당하는 쿼리를 만들어야 한다
+	public QueryTemplate get(K shape, Supplier<JPAQuery<?>> queryBuilder) {
+		QueryTemplate template = templates.get(shape);
+		if (template != null) {
+			hitCount.incrementAndGet();
+			return template;
+		}
+
+		missCount.incrementAndGet();
+		return templates.computeIfAbsent(shape, key -> compile(queryBuilder.get()));
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public int size() {
+		return templates.size();
+	}
+
+	// 지금까지 등록된 shape별 템플릿 (ex. IndexAdvisor가 실행계획을 확인할 때 사용)
+	public Map<K, QueryTemplate> getTemplates() {
+		return Collections.unmodifiableMap(templates);
+	}
+
+	private QueryTemplate compile(JPAQuery<?> query) {
+		JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(entityManager), entityManager);
+		serializer.serialize(query.getMetadata(), false, null);
+
+		Expression<?> projection = query.getMetadata().getProjection();
+		return new QueryTemplate(
+			serializer.toString(),
+			Collections.unmodifiableMap(new LinkedHashMap<>(serializer.getConstantToLabel())),
+			projection instanceof FactoryExpression ? (FactoryExpression<?>) projection : null);
+	}
+
+	public class QueryTemplate {
+		private final String jpql;
+
+		private final Map<Object, String> constantToLabel;
+
+		private final FactoryExpression<?> projection;
+
+		private QueryTemplate(String jpql, Map<Object, String> constantToLabel, FactoryExpression<?> projection) {
+			this.jpql = jpql;
+			this.constantToLabel = constantToLabel;
+			this.projection = projection;
+		}
+
+		public String getJpql() {
+			return jpql;
+		}
+
+		public Map<Object, String> getConstantToLabel() {
+			return constantToLabel;
+		}
+
+		@SuppressWarnings("unchecked")
+		public <T> List<T> fetch(Map<ParamExpression<?>, Object> params) {
+			Query query = entityManager.createQuery(jpql);
+			JPAUtil.setConstants(query, constantToLabel, params);
+			List<?> rows = query.getResultList();
+			if (projection == null) {
+				return (List<T>) rows;
+			}
+
+			// Dto 프로젝션은 JPQL에서 컬럼 목록으로 조회되므로 FactoryExpression으로 직접 생성한다
+			List<T> result = new ArrayList<>(rows.size());
+			for (Object row : rows) {
+				Object[] args = row instanceof Object[] ? (Object[]) row : new Object[]{row};
+				result.add((T) projection.newInstance(args));
+			}
+			return result;
+		}
+	}
+}
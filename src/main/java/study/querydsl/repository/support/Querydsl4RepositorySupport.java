@@ -1,14 +1,22 @@
 package study.querydsl.repository.support;
 
 import com.mysema.commons.lang.Assert;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
@@ -18,8 +26,13 @@ import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
+import javax.persistence.Table;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 @Repository
 public abstract class Querydsl4RepositorySupport {
@@ -27,10 +40,18 @@ public abstract class Querydsl4RepositorySupport {
 
 	private Querydsl querydsl;
 
+	private PathBuilder<?> builder;
+
+	private String idAttributeName;
+
 	private EntityManager entityManager;
 
 	private JPAQueryFactory jpaQueryFactory;
 
+	private CountCache countCache;
+
+	private ParallelPaginationExecutor parallelPaginationExecutor;
+
 	public Querydsl4RepositorySupport(Class<?> domainClass) {
 		Assert.notNull(domainClass, "Domain class must not be null!");
 		this.domainClass = domainClass;
@@ -47,15 +68,29 @@ public abstract class Querydsl4RepositorySupport {
 		SimpleEntityPathResolver pathResolver = SimpleEntityPathResolver.INSTANCE;
 		EntityPath path = pathResolver.createPath(entityInformation.getJavaType());
 
-		this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
+		this.builder = new PathBuilder<>(path.getType(), path.getMetadata());
+		this.querydsl = new Querydsl(entityManager, builder);
+		this.idAttributeName = entityInformation.getIdAttribute() != null ? entityInformation.getIdAttribute().getName() : null;
 		this.jpaQueryFactory = new JPAQueryFactory(entityManager);
 	}
 
+	@Autowired
+	public void setCountCache(CountCache countCache) {
+		this.countCache = countCache;
+	}
+
+	@Autowired
+	public void setParallelPaginationExecutor(ParallelPaginationExecutor parallelPaginationExecutor) {
+		this.parallelPaginationExecutor = parallelPaginationExecutor;
+	}
+
 	@PostConstruct
 	public void validate() {
 		Assert.notNull(entityManager, "EntityManager must not be null!")	;
 		Assert.notNull(querydsl, "Querydsl must not be null!");
 		Assert.notNull(jpaQueryFactory, "QueryFactory must not be null!");
+		Assert.notNull(countCache, "CountCache must not be null!");
+		Assert.notNull(parallelPaginationExecutor, "ParallelPaginationExecutor must not be null!");
 	}
 
 	protected JPAQueryFactory getQueryFactory() {
@@ -81,9 +116,11 @@ public abstract class Querydsl4RepositorySupport {
 	protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
 		// 입력받은 Query 메서드로부터 JPAQuery 객체를 가져온다
 		JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+		// 페이징 조건이 추가되기 전의 쿼리 구조를 count 캐시의 키로 사용한다
+		QueryMetadata countMetadata = jpaQuery.getMetadata().clone();
 		// querydsl의 페이징 처리를 통해 content에 페이징 조건을 추가한다
 		List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
-		return PageableExecutionUtils.getPage(content, pageable, () -> jpaQuery.fetchCount());
+		return PageableExecutionUtils.getPage(content, pageable, () -> cachedCount(countMetadata, jpaQuery::fetchCount));
 	}
 
 	protected <T> Page<T> applyPagination(Pageable pageable,
@@ -91,10 +128,106 @@ public abstract class Querydsl4RepositorySupport {
 										  Function<JPAQueryFactory, JPAQuery> countQuery) {
 		// content와 count를 분리 (count query 최적화 위함)
 		JPAQuery jpqContentQuery = contentQuery.apply(getQueryFactory());
-		List<T> content = getQuerydsl().applyPagination(pageable, jpqContentQuery).fetch();
+		// applyPagination은 전달받은 쿼리에 페이징 조건을 직접 추가한다
+		getQuerydsl().applyPagination(pageable, jpqContentQuery);
 		JPAQuery count = countQuery.apply(getQueryFactory());
-		return PageableExecutionUtils.getPage(content, pageable, count::fetchCount);
+		// 병렬 실행이 가능하면 content와 count를 동시에 실행하고, 불가능하면 순차 실행한다
+		return parallelPaginationExecutor.fetchPage(pageable, jpqContentQuery, count,
+			countLoader -> cachedCount(count.getMetadata(), countLoader),
+			() -> {
+				List<T> content = jpqContentQuery.fetch();
+				return PageableExecutionUtils.getPage(content, pageable, () -> cachedCount(count.getMetadata(), count::fetchCount));
+			});
+	}
+
+	// countEstimate가 추정값을 반환하면 count query를 실행하지 않고, null이면 정확한 count를 사용한다
+	protected <T> Page<T> applyPagination(Pageable pageable,
+										  Function<JPAQueryFactory, JPAQuery> contentQuery,
+										  Function<JPAQueryFactory, JPAQuery> countQuery,
+										  Supplier<CountEstimate> countEstimate) {
+		CountEstimate estimate = countEstimate.get();
+		if (estimate == null) {
+			return applyPagination(pageable, contentQuery, countQuery);
+		}
+
+		JPAQuery jpqContentQuery = contentQuery.apply(getQueryFactory());
+		List<T> content = getQuerydsl().applyPagination(pageable, jpqContentQuery).fetch();
+		return new EstimatedPage<>(content, pageable, estimate);
+	}
+
+	// 무한 스크롤처럼 total이 필요없는 경우, pageSize + 1개를 조회하여 다음 페이지 존재여부만 판단한다 (count query를 실행하지 않는다)
+	protected <T> Slice<T> applySlicing(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
+		JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+		if (pageable.isUnpaged()) {
+			List<T> content = jpaQuery.fetch();
+			return new SliceImpl<>(content, pageable, false);
+		}
+
+		getQuerydsl().applySorting(pageable.getSort(), jpaQuery);
+		// 정렬값이 같은 row의 순서가 페이지마다 달라지지 않도록 식별자를 마지막 정렬키로 추가한다 (정렬이 없으면 식별자 순서)
+		if (idAttributeName != null && pageable.getSort().getOrderFor(idAttributeName) == null) {
+			jpaQuery.orderBy(new OrderSpecifier(Order.ASC, builder.get(idAttributeName)));
+		}
+		List<T> content = jpaQuery
+			.offset(pageable.getOffset())
+			.limit(pageable.getPageSize() + 1)
+			.fetch();
+		return toSlice(content, pageable);
+	}
+
+	// pageSize보다 많이 조회되었다면 다음 페이지가 존재하므로, 초과된 row는 제외하고 반환한다
+	private <T> Slice<T> toSlice(List<T> content, Pageable pageable) {
+		boolean hasNext = content.size() > pageable.getPageSize();
+		List<T> sliced = hasNext ? new ArrayList<>(content.subList(0, pageable.getPageSize())) : content;
+		return new SliceImpl<>(sliced, pageable, hasNext);
+	}
+
+	// batchSize 건마다 변경 내용을 flush 하고 영속성 컨텍스트를 비워서, 전체 테이블을 처리해도 메모리가 일정하게 유지된다
+	// 엔티티를 변경하는 작업이라면 쓰기 트랜잭션 안에서 호출해야 한다
+	protected <T> long forEach(Function<JPAQueryFactory, JPAQuery<T>> query, int batchSize, Consumer<? super T> consumer) {
+		Assert.isTrue(batchSize > 0, "batchSize must be positive");
+		long count = 0;
+		try (CloseableIterator<T> iterator = query.apply(getQueryFactory())
+			.setHint(QueryHints.HINT_FETCH_SIZE, batchSize)
+			.iterate()) {
+			while (iterator.hasNext()) {
+				consumer.accept(iterator.next());
+				if (++count % batchSize == 0) {
+					flushAndClear();
+				}
+			}
+		}
+		flushAndClear();
+		return count;
+	}
+
+	private void flushAndClear() {
+		if (getEntityManager().isJoinedToTransaction()) {
+			getEntityManager().flush();
+		}
+		getEntityManager().clear();
+	}
+
+	// Querydsl의 QueryMetadata는 구조(조인, 조건, 바인딩 값)로 equals를 비교하므로 같은 검색이면 같은 키가 된다
+	private long cachedCount(QueryMetadata metadata, LongSupplier countQuery) {
+		return countCache.getCount(domainClass.getName(), metadata, joinedTables(metadata), countQuery);
+	}
+
+	private String[] joinedTables(QueryMetadata metadata) {
+		return metadata.getJoins().stream()
+			.map(JoinExpression::getTarget)
+			.map(target -> tableName(target.getType()))
+			.distinct()
+			.toArray(String[]::new);
+	}
 
+	// 별도로 테이블명을 지정하지 않았다면 SpringPhysicalNamingStrategy에 따라 엔티티명이 snake_case로 변환된다
+	private String tableName(Class<?> entityType) {
+		Table table = entityType.getAnnotation(Table.class);
+		if (table != null && !table.name().isEmpty()) {
+			return table.name();
+		}
+		return entityType.getSimpleName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
 	}
 
 }
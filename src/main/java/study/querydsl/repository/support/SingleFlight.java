@@ -0,0 +1,81 @@
+package study.querydsl.repository.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 같은 key로 동시에 들어온 호출은 먼저 도착한 호출의 실행 결과를 함께 사용한다
+// 결과를 보관하지 않으므로 캐시와 달리 실행이 끝난 뒤에 들어온 호출은 다시 실행한다
+// 먼저 도착한 호출이 timeoutMillis 안에 끝나지 않으면 기다리던 호출은 직접 실행한다
+// 결과 객체를 모든 호출이 함께 사용하므로, 결과를 변경하지 않아야 한다
+public class SingleFlight<K, V> {
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	private final long timeoutMillis;
+
+	private final AtomicLong executionCount = new AtomicLong();
+
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	public SingleFlight(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	public V execute(K key, Loader<V> loader) throws Throwable {
+		CompletableFuture<V> created = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+		if (existing != null) {
+			coalescedCount.incrementAndGet();
+			try {
+				return await(existing);
+			} catch (TimeoutException e) {
+				executionCount.incrementAndGet();
+				return loader.load();
+			}
+		}
+
+		executionCount.incrementAndGet();
+		try {
+			V value = loader.load();
+			created.complete(value);
+			return value;
+		} catch (Throwable e) {
+			created.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, created);
+		}
+	}
+
+	public long getExecutionCount() {
+		return executionCount.get();
+	}
+
+	public long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private V await(CompletableFuture<V> future) throws Throwable {
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for an in-flight execution", e);
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	@FunctionalInterface
+	public interface Loader<V> {
+		V load() throws Throwable;
+	}
+}
@@ -0,0 +1,62 @@
+package study.querydsl.repository.support;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 같은 검색조건, 같은 페이지로 동시에 들어온 MemberRepositoryCustom 호출은 DB에서 한번만 실행하고 결과를 공유한다
+// 트랜잭션 시작 전에 합쳐야 기다리는 호출이 커넥션을 점유하지 않으므로 @Transactional보다 먼저 실행한다
+// 공유되는 결과를 한 호출이 변경하지 못하도록 List는 읽기전용으로 반환한다 (Page, Slice의 getContent는 이미 읽기전용이다)
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class SingleFlightAspect {
+	private final SingleFlight<List<Object>, Object> singleFlight;
+
+	private final boolean enabled;
+
+	public SingleFlightAspect(@Value("${querydsl.single-flight.enabled:true}") boolean enabled,
+							  @Value("${querydsl.single-flight.timeout-millis:3000}") long timeoutMillis) {
+		this.enabled = enabled;
+		this.singleFlight = new SingleFlight<>(timeoutMillis);
+	}
+
+	public SingleFlight<List<Object>, Object> getSingleFlight() {
+		return singleFlight;
+	}
+
+	@Around("execution(* study.querydsl.repository.MemberRepositoryCustom.*(..)) && target(study.querydsl.repository.MemberRepositoryImpl)")
+	public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+		// 쓰기 트랜잭션 안에서는 커밋되지 않은 변경이 결과에 포함될 수 있으므로 다른 호출과 공유하지 않는다
+		if (!enabled || (TransactionSynchronizationManager.isActualTransactionActive()
+			&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+			return joinPoint.proceed();
+		}
+		return singleFlight.execute(key(joinPoint.getSignature().getName(), joinPoint.getArgs()),
+			() -> unmodifiable(joinPoint.proceed()));
+	}
+
+	// 빈 문자열 검색조건은 조건이 없는 것과 같으므로 정규화하여 같은 key가 되도록 한다
+	List<Object> key(String method, Object[] args) {
+		List<Object> key = new ArrayList<>();
+		key.add(method);
+		for (Object arg : args) {
+			key.add(arg instanceof MemberSearchCondition ? ((MemberSearchCondition) arg).normalize() : arg);
+		}
+		return key;
+	}
+
+	private Object unmodifiable(Object result) {
+		return result instanceof List ? Collections.unmodifiableList((List<?>) result) : result;
+	}
+}
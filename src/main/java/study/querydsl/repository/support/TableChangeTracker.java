@@ -0,0 +1,115 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Hibernate가 DB로 전송하는 모든 SQL을 검사하여 테이블별 변경 버전을 관리한다
+// 엔티티 변경뿐 아니라 영속성 컨텍스트를 거치지 않는 Bulk 연산(execute)도 SQL로 전송되므로 함께 감지된다
+@Component
+public class TableChangeTracker implements StatementInspector {
+	private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/", Pattern.DOTALL);
+
+	private static final Pattern WRITE_STATEMENT = Pattern.compile(
+		"^\\s*(?:insert\\s+into|update|delete\\s+from|delete|merge\\s+into)\\s+([\\w.]+)",
+		Pattern.CASE_INSENSITIVE);
+
+	private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+	private final List<TableWriteListener> listeners = new CopyOnWriteArrayList<>();
+
+	@Override
+	public String inspect(String sql) {
+		String table = writtenTable(sql);
+		if (table != null) {
+			bump(table);
+			bumpAfterCompletion(table);
+			notifyListeners(table, sql);
+		}
+		return sql;
+	}
+
+	// JdbcTemplate처럼 Hibernate를 거치지 않고 변경한 경우 직접 호출한다
+	public void markChanged(String table) {
+		String normalized = normalize(table);
+		bump(normalized);
+		bumpAfterCompletion(normalized);
+		notifyListeners(normalized, null);
+	}
+
+	public void addListener(TableWriteListener listener) {
+		listeners.add(listener);
+	}
+
+	public long getVersion(String table) {
+		AtomicLong version = versions.get(normalize(table));
+		return version != null ? version.get() : 0L;
+	}
+
+	// 버전은 증가만 하므로 합이 같다면 어떤 테이블도 변경되지 않은것이다
+	public long getVersion(String... tables) {
+		long sum = 0L;
+		for (String table : tables) {
+			sum += getVersion(table);
+		}
+		return sum;
+	}
+
+	private void bump(String table) {
+		versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+	}
+
+	// SQL 전송 시점에는 아직 커밋 전이므로, 그 사이 다른 트랜잭션이 이전 값을 다시 캐싱할 수 있다
+	// 트랜잭션이 끝나는 시점(커밋/롤백)에 한번 더 버전을 올려서 이전 값이 남지 않도록 한다
+	@SuppressWarnings("unchecked")
+	private void bumpAfterCompletion(String table) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+
+		Set<String> writtenTables = (Set<String>) TransactionSynchronizationManager.getResource(this);
+		if (writtenTables == null) {
+			Set<String> tables = new HashSet<>();
+			writtenTables = tables;
+			TransactionSynchronizationManager.bindResource(this, tables);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(TableChangeTracker.this);
+					tables.forEach(TableChangeTracker.this::bump);
+				}
+			});
+		}
+		writtenTables.add(table);
+	}
+
+	private void notifyListeners(String table, String sql) {
+		for (TableWriteListener listener : listeners) {
+			listener.onWrite(table, sql);
+		}
+	}
+
+	private String writtenTable(String sql) {
+		String statement = LEADING_COMMENT.matcher(sql).replaceFirst("");
+		Matcher matcher = WRITE_STATEMENT.matcher(statement);
+		return matcher.find() ? normalize(matcher.group(1)) : null;
+	}
+
+	private String normalize(String table) {
+		String lower = table.toLowerCase(Locale.ROOT);
+		int schemaIndex = lower.lastIndexOf('.');
+		return schemaIndex >= 0 ? lower.substring(schemaIndex + 1) : lower;
+	}
+}
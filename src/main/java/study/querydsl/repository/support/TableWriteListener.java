@@ -0,0 +1,8 @@
+package study.querydsl.repository.support;
+
+// TableChangeTracker가 변경 SQL을 감지할 때마다 호출된다
+// markChanged로 직접 알린 경우에는 실행된 SQL을 알 수 없으므로 sql이 null이다
+@FunctionalInterface
+public interface TableWriteListener {
+	void onWrite(String table, String sql);
+}
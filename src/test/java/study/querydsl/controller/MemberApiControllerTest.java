@@ -0,0 +1,56 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 다른 테스트와 같은 context를 재사용하도록 설정을 바꾸지 않고, MockMvc도 그 context로 만든다
+@SpringBootTest
+class MemberApiControllerTest {
+	@Autowired
+	private WebApplicationContext webApplicationContext;
+
+	@Value("${querydsl.keyset.max-size}")
+	private int keysetMaxSize;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setup() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+	}
+
+	@Test
+	@DisplayName("keyset 검색의 size가 1보다 작으면 400으로 응답한다")
+	void keysetWrongSize() throws Exception {
+		mockMvc.perform(get("/api/v4/members").param("size", "0"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/v4/members").param("size", "-1"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("keyset 검색의 cursor를 해석할 수 없으면 400으로 응답한다")
+	void keysetWrongCursor() throws Exception {
+		mockMvc.perform(get("/api/v4/members").param("cursor", "not-a-cursor"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("keyset 검색의 size는 max-size로 제한된다")
+	void keysetMaxSize() throws Exception {
+		mockMvc.perform(get("/api/v4/members").param("size", String.valueOf(keysetMaxSize + 1)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.size").value(keysetMaxSize));
+	}
+}
@@ -0,0 +1,83 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamColumnarWriterTest {
+	@Test
+	@DisplayName("blockSize마다 컬럼 block을 기록하고, 팀명은 처음 등장한 block에서만 사전에 추가된다")
+	void writeBlocks() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		MemberTeamColumnarWriter writer = new MemberTeamColumnarWriter(bytes, 2);
+		writer.onRow(1L, "member1", 10, 100L, "teamA");
+		writer.onRow(2L, "member2", 20, 100L, "teamA");
+		writer.onRow(3L, "member3", 30, 200L, "teamB");
+		writer.onRow(4L, null, 40, 0L, null);
+		writer.onRow(5L, "member5", 50, 100L, "teamA");
+		writer.finish();
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		byte[] magic = new byte[MemberTeamColumnarWriter.MAGIC.length];
+		input.readFully(magic);
+		assertThat(magic).isEqualTo(MemberTeamColumnarWriter.MAGIC);
+
+		List<String> dictionary = new ArrayList<>();
+		List<String> memberNames = new ArrayList<>();
+		List<String> teamNames = new ArrayList<>();
+		List<Integer> blockSizes = new ArrayList<>();
+		int rowCount;
+		while ((rowCount = input.readInt()) > 0) {
+			blockSizes.add(rowCount);
+
+			assertThat(input.readInt()).isEqualTo(rowCount * Long.BYTES);
+			input.skipBytes(rowCount * Long.BYTES);
+
+			input.readInt();
+			for (int i = 0; i < rowCount; ++i) {
+				memberNames.add(readString(input));
+			}
+
+			assertThat(input.readInt()).isEqualTo(rowCount * Integer.BYTES);
+			input.skipBytes(rowCount * Integer.BYTES);
+
+			assertThat(input.readInt()).isEqualTo(rowCount * Long.BYTES);
+			input.skipBytes(rowCount * Long.BYTES);
+
+			input.readInt();
+			int newEntries = input.readInt();
+			for (int i = 0; i < newEntries; ++i) {
+				dictionary.add(readString(input));
+			}
+			for (int i = 0; i < rowCount; ++i) {
+				int code = input.readInt();
+				teamNames.add(code < 0 ? null : dictionary.get(code));
+			}
+		}
+
+		assertThat(blockSizes).containsExactly(2, 2, 1);
+		assertThat(dictionary).containsExactly("teamA", "teamB");
+		assertThat(memberNames).containsExactly("member1", "member2", "member3", null, "member5");
+		assertThat(teamNames).containsExactly("teamA", "teamA", "teamB", null, "teamA");
+		assertThat(input.available()).isZero();
+	}
+
+	private String readString(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] value = new byte[length];
+		input.readFully(value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+}
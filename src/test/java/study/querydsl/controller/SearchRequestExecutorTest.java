@@ -0,0 +1,83 @@
+package study.querydsl.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchRequestExecutorTest {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private SearchRequestExecutor executor;
+
+	@AfterEach
+	void tearDown() {
+		executor.destroy();
+	}
+
+	@Test
+	@DisplayName("비활성화되어 있으면 요청 스레드에서 실행한다")
+	void disabled() throws Exception {
+		executor = new SearchRequestExecutor(meterRegistry, false, 1, 1, 10, 4);
+
+		CompletableFuture<String> result = executor.submit(() -> Thread.currentThread().getName());
+
+		assertThat(result.isDone()).isTrue();
+		assertThat(result.get()).isEqualTo(Thread.currentThread().getName());
+	}
+
+	@Test
+	@DisplayName("동시 실행 수와 대기열을 넘는 요청은 바로 503으로 거절한다")
+	void rejectWhenQueueIsFull() throws Exception {
+		executor = new SearchRequestExecutor(meterRegistry, true, 1, 1, 10, 4);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> running = executor.submit(() -> await(release));
+		CompletableFuture<String> queued = executor.submit(() -> await(release));
+
+		assertThatThrownBy(() -> executor.submit(() -> "rejected"))
+			.isInstanceOf(ResponseStatusException.class)
+			.extracting("status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(meterRegistry.get("querydsl.async.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(running.get(1, TimeUnit.SECONDS)).startsWith("search-request-");
+		assertThat(queued.get(1, TimeUnit.SECONDS)).startsWith("search-request-");
+	}
+
+	@Test
+	@DisplayName("동시 실행 수를 지정하지 않으면 count 작업 스레드가 사용할 커넥션을 남겨둔다")
+	void reserveConnectionsForParallelPagination() throws Exception {
+		// 커넥션 3개 중 2개는 count 작업 스레드 몫이므로 검색은 하나씩만 실행한다
+		executor = new SearchRequestExecutor(meterRegistry, true, 0, 1, 3, 2);
+		CountDownLatch release = new CountDownLatch(1);
+
+		CompletableFuture<String> running = executor.submit(() -> await(release));
+		CompletableFuture<String> queued = executor.submit(() -> await(release));
+
+		assertThatThrownBy(() -> executor.submit(() -> "rejected"))
+			.isInstanceOf(ResponseStatusException.class);
+
+		release.countDown();
+		assertThat(running.get(1, TimeUnit.SECONDS)).startsWith("search-request-");
+		assertThat(queued.get(1, TimeUnit.SECONDS)).startsWith("search-request-");
+	}
+
+	private String await(CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Thread.currentThread().getName();
+	}
+}
@@ -0,0 +1,51 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.repository.support.TableChangeTracker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultEtagTest {
+	private final TableChangeTracker tableChangeTracker = new TableChangeTracker();
+
+	private final SearchResultEtag searchResultEtag = new SearchResultEtag(tableChangeTracker, true);
+
+	@Test
+	@DisplayName("member, team 테이블이 변경되지 않으면 같은 ETag를 사용한다")
+	void sameVersion() {
+		String etag = searchResultEtag.of("v2", condition("teamA"), PageRequest.of(0, 20));
+
+		assertThat(etag).startsWith("W/\"");
+		assertThat(searchResultEtag.of("v2", condition("teamA"), PageRequest.of(0, 20))).isEqualTo(etag);
+		assertThat(searchResultEtag.of("v2", condition("teamB"), PageRequest.of(0, 20))).isNotEqualTo(etag);
+		assertThat(searchResultEtag.of("v2", condition("teamA"), PageRequest.of(1, 20))).isNotEqualTo(etag);
+	}
+
+	@Test
+	@DisplayName("member, team 테이블이 변경되면 ETag가 바뀐다")
+	void changed() {
+		String etag = searchResultEtag.of("v3", condition("teamA"), PageRequest.of(0, 20));
+
+		tableChangeTracker.inspect("update member set age = age + 1");
+		String memberChanged = searchResultEtag.of("v3", condition("teamA"), PageRequest.of(0, 20));
+		assertThat(memberChanged).isNotEqualTo(etag);
+
+		tableChangeTracker.markChanged("team");
+		assertThat(searchResultEtag.of("v3", condition("teamA"), PageRequest.of(0, 20))).isNotEqualTo(memberChanged);
+	}
+
+	@Test
+	@DisplayName("비활성화되어 있으면 ETag를 만들지 않는다")
+	void disabled() {
+		assertThat(new SearchResultEtag(tableChangeTracker, false).of("v2", condition("teamA"))).isNull();
+	}
+
+	private MemberSearchCondition condition(String teamName) {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName(teamName);
+		return condition;
+	}
+}
@@ -0,0 +1,97 @@
+package study.querydsl.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 로컬 H2 in-memory DB 두개를 primary, replica로 사용한다
+class ReplicaRoutingDataSourceTest {
+	private final DataSource primary = h2("primary");
+
+	private final DataSource replica = h2("replica");
+
+	private ReplicaRoutingDataSource routingDataSource;
+
+	@BeforeEach
+	void setup() {
+		for (DataSource dataSource : Arrays.asList(primary, replica)) {
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			jdbcTemplate.execute("create table if not exists node (name varchar(20))");
+			jdbcTemplate.execute("delete from node");
+		}
+		new JdbcTemplate(primary).update("insert into node values ('primary')");
+		new JdbcTemplate(replica).update("insert into node values ('replica')");
+	}
+
+	@AfterEach
+	void cleanup() throws Exception {
+		TransactionSynchronizationManager.setActualTransactionActive(false);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		if (routingDataSource != null) {
+			routingDataSource.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("readOnly 트랜잭션은 복제본으로 라우팅된다")
+	void routeReadOnlyToReplica() {
+		routingDataSource = new ReplicaRoutingDataSource(primary,
+			Collections.singletonList(new Replica("replica", replica)), ReplicaSelection.ROUND_ROBIN, 0);
+
+		assertThat(currentNode()).isEqualTo("primary");
+
+		readOnlyTransaction();
+		assertThat(currentNode()).isEqualTo("replica");
+	}
+
+	@Test
+	@DisplayName("복제본에 연결할 수 없으면 primary로 대체된다")
+	void failoverToPrimary() {
+		Replica broken = new Replica("broken", new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none", "sa", ""));
+		routingDataSource = new ReplicaRoutingDataSource(primary,
+			Collections.singletonList(broken), ReplicaSelection.LEAST_LATENCY, 0);
+
+		readOnlyTransaction();
+		assertThat(currentNode()).isEqualTo("primary");
+		assertThat(broken.isHealthy()).isFalse();
+	}
+
+	@Test
+	@DisplayName("health check는 복구된 복제본을 다시 사용한다")
+	void healthCheck() {
+		Replica replicaNode = new Replica("replica", replica);
+		routingDataSource = new ReplicaRoutingDataSource(primary,
+			Collections.singletonList(replicaNode), ReplicaSelection.LEAST_LATENCY, 0);
+		replicaNode.markDown();
+
+		readOnlyTransaction();
+		assertThat(currentNode()).isEqualTo("primary");
+
+		routingDataSource.checkHealth();
+		assertThat(replicaNode.isHealthy()).isTrue();
+		assertThat(currentNode()).isEqualTo("replica");
+	}
+
+	private void readOnlyTransaction() {
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+	}
+
+	private String currentNode() {
+		return new JdbcTemplate(routingDataSource).queryForObject("select name from node", String.class);
+	}
+
+	private static DataSource h2(String name) {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+	}
+}
@@ -0,0 +1,88 @@
+package study.querydsl.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// primary(memory 프로필의 H2)와 복제본(별도의 H2 in-memory DB)을 사용한다
+// 복제본에는 node 테이블만 있으므로, 쓰기가 복제본으로 라우팅되면 실패한다
+@SpringBootTest(properties = {
+	"querydsl.replica.enabled=true",
+	"querydsl.replica.health-check-interval-millis=0",
+	"querydsl.replica.nodes[0].name=replica1",
+	"querydsl.replica.nodes[0].url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1"
+})
+class ReplicaRoutingIntegrationTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setup() {
+		JdbcTemplate replica = new JdbcTemplate(replicaRoutingDataSource.getReplicas().get(0).getDataSource());
+		for (JdbcTemplate node : new JdbcTemplate[]{jdbcTemplate, replica}) {
+			node.execute("create table if not exists node (name varchar(20))");
+			node.execute("delete from node");
+		}
+		jdbcTemplate.update("insert into node values ('primary')");
+		replica.update("insert into node values ('replica')");
+	}
+
+	@Test
+	@DisplayName("복제본 라우팅을 사용하면 요청 단위로 커넥션을 유지하는 open-in-view를 끈다")
+	void openInViewDisabled() {
+		assertThat(applicationContext.getBean(Environment.class).getProperty("spring.jpa.open-in-view", Boolean.class))
+			.isFalse();
+		assertThat(applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("readOnly 트랜잭션 이후의 쓰기는 primary로 라우팅된다")
+	void writeAfterReadOnly() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+		assertThat(readOnly.execute(status -> currentNode())).isEqualTo("replica");
+
+		String written = write.execute(status -> {
+			entityManager.persist(new Team("written"));
+			entityManager.flush();
+			return currentNode();
+		});
+		assertThat(written).isEqualTo("primary");
+		assertThat(readOnly.execute(status -> currentNode())).isEqualTo("replica");
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from team where name = 'written'", Long.class))
+			.isEqualTo(1L);
+	}
+
+	private String currentNode() {
+		return (String) entityManager.createNativeQuery("select name from node").getSingleResult();
+	}
+}
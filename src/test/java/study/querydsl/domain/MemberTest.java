@@ -1,5 +1,6 @@
 package study.querydsl.domain;
 
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,6 +9,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 
 //@Rollback(false)
 @Transactional
@@ -40,4 +43,43 @@ class MemberTest {
 			System.out.println("findMember.team = " + findMember.getTeam());
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("팀을 변경하면 이전 팀의 members에서 제거되고 새 팀에 추가된다")
+	void changeTeam() {
+		Team teamA = new Team("TeamA");
+		Team teamB = new Team("TeamB");
+		Member member1 = new Member("member1", 10, teamA);
+		Member member2 = new Member("member2", 20, teamA);
+
+		member1.changeTeam(teamB);
+
+		assertThat(teamA.getMembers()).containsExactly(member2);
+		assertThat(teamB.getMembers()).containsExactly(member1);
+		assertThat(member1.getTeam()).isSameAs(teamB);
+	}
+
+	@Test
+	@DisplayName("조회한 팀의 members가 초기화되지 않았어도 같은 영속성 컨텍스트에서 추가/삭제가 반영된다")
+	void changeTeamWithUninitializedMembers() {
+		Team teamA = new Team("TeamA");
+		Team teamB = new Team("TeamB");
+		entityManager.persist(teamA);
+		entityManager.persist(teamB);
+		entityManager.persist(new Member("member1", 10, teamA));
+		entityManager.persist(new Member("member2", 20, teamA));
+		entityManager.flush();
+		entityManager.clear();
+
+		Team findTeamA = entityManager.find(Team.class, teamA.getId());
+		Team findTeamB = entityManager.find(Team.class, teamB.getId());
+		Member member3 = new Member("member3", 30, findTeamA);
+		entityManager.persist(member3);
+		Member member1 = entityManager.createQuery("select m from Member m where m.name = 'member1'", Member.class)
+			.getSingleResult();
+		member1.changeTeam(findTeamB);
+
+		assertThat(findTeamA.getMembers()).extracting("name").containsExactly("member2", "member3");
+		assertThat(findTeamB.getMembers()).containsExactly(member1);
+	}
+}
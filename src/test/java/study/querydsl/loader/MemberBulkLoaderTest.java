@@ -0,0 +1,70 @@
+package study.querydsl.loader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberBulkLoaderTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private MemberBulkLoader memberBulkLoader;
+
+	@Test
+	@DisplayName("JPA batch 적재")
+	void loadWithJpa() {
+		long before = countMembers();
+
+		// batchSize로 나누어 떨어지지 않는 건수도 모두 적재되어야 한다
+		BulkLoadResult result = memberBulkLoader.loadWithJpa(25, 3, 10);
+
+		assertThat(result.getRows()).isEqualTo(25);
+		assertThat(countMembers() - before).isEqualTo(25);
+	}
+
+	@Test
+	@DisplayName("JDBC batch 적재")
+	void loadWithJdbc() {
+		long before = countMembers();
+
+		BulkLoadResult result = memberBulkLoader.loadWithJdbc(25, 3, 10);
+
+		assertThat(result.getRows()).isEqualTo(25);
+		assertThat(countMembers() - before).isEqualTo(25);
+		assertThat(entityManager.createQuery("select count(m) from Member m where m.team is null", Long.class)
+			.getSingleResult()).isZero();
+	}
+
+	@Test
+	@DisplayName("JDBC 적재 후에도 엔티티 식별자가 겹치지 않는다")
+	void persistAfterJdbcLoad() {
+		// Hibernate가 이미 할당받은 식별자 범위와 JDBC 적재가 할당받은 범위는 시퀀스로 구분된다
+		long before = countMembers();
+		Team team = new Team("team");
+		entityManager.persist(team);
+		entityManager.persist(new Member("before", 10, team));
+		entityManager.flush();
+
+		memberBulkLoader.loadWithJdbc(120, 3, 50);
+
+		entityManager.persist(new Member("after", 20, team));
+		entityManager.flush();
+		assertThat(countMembers() - before).isEqualTo(122);
+	}
+
+	private long countMembers() {
+		return entityManager.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+	}
+}
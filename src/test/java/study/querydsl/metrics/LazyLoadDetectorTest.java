@@ -0,0 +1,76 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Transactional
+@SpringBootTest
+class LazyLoadDetectorTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private LazyLoadDetector lazyLoadDetector;
+
+	@BeforeEach
+	void setup() {
+		for (int i = 1; i <= 3; ++i) {
+			Team team = new Team("Team" + i);
+			entityManager.persist(team);
+			entityManager.persist(new Member("member" + i, 10 * i, team));
+			entityManager.persist(new Member("member" + (i + 3), 10 * i + 5, team));
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	@DisplayName("batch fetch로 Member.team 지연로딩이 한번에 처리된다")
+	void batchFetchTeam() {
+		try (LazyLoadDetector.LazyLoadScope scope = lazyLoadDetector.open()) {
+			List<Member> members = entityManager.createQuery("select m from Member m", Member.class).getResultList();
+			for (Member member : members) {
+				member.getTeam().getName();
+			}
+			// 첫번째 프록시가 초기화될 때 나머지 Team도 IN절로 함께 조회된다
+			assertThat(scope.getCount("Team")).isEqualTo(1);
+		}
+	}
+
+	@Test
+	@DisplayName("batch fetch로 Team.members 지연로딩이 한번에 처리된다")
+	void batchFetchMembers() {
+		try (LazyLoadDetector.LazyLoadScope scope = lazyLoadDetector.open()) {
+			List<Team> teams = entityManager.createQuery("select t from Team t", Team.class).getResultList();
+			for (Team team : teams) {
+				team.getMembers().size();
+			}
+			assertThat(scope.getCount("Team.members")).isEqualTo(1);
+		}
+	}
+
+	@Test
+	@DisplayName("threshold를 넘는 지연로딩은 실패한다")
+	void failOnExceeded() {
+		LazyLoadDetector.LazyLoadScope scope = lazyLoadDetector.open(0);
+		List<Member> members = entityManager.createQuery("select m from Member m", Member.class).getResultList();
+		members.get(0).getTeam().getName();
+
+		assertThatThrownBy(scope::close)
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("Team");
+	}
+}
@@ -0,0 +1,80 @@
+package study.querydsl.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 테스트 설정은 threshold 5, mode fail 이다
+@Transactional
+@SpringBootTest
+class LazyLoadInterceptorTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private LazyLoadInterceptor lazyLoadInterceptor;
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	private Long memberId;
+
+	@BeforeEach
+	void setup() {
+		Team team = new Team("Team1");
+		entityManager.persist(team);
+		Member member = new Member("member1", 10, team);
+		entityManager.persist(member);
+		entityManager.flush();
+		memberId = member.getId();
+	}
+
+	@Test
+	@DisplayName("threshold를 넘으면 핸들러 실행 직후에 실패하고 요청 속성에 남긴다")
+	void failInPostHandle() {
+		lazyLoadInterceptor.preHandle(request, response, null);
+		loadTeamLazily(6);
+
+		assertThatThrownBy(() -> lazyLoadInterceptor.postHandle(request, response, null, null))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("Team");
+		lazyLoadInterceptor.afterCompletion(request, response, null, null);
+
+		assertThat((List<?>) request.getAttribute(LazyLoadInterceptor.EXCEEDED_ATTRIBUTE)).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("threshold 이하라면 넘은 연관관계 없이 끝난다")
+	void underThreshold() {
+		lazyLoadInterceptor.preHandle(request, response, null);
+		loadTeamLazily(5);
+
+		lazyLoadInterceptor.postHandle(request, response, null, null);
+		lazyLoadInterceptor.afterCompletion(request, response, null, null);
+
+		assertThat((List<?>) request.getAttribute(LazyLoadInterceptor.EXCEEDED_ATTRIBUTE)).isEmpty();
+	}
+
+	// 영속성 컨텍스트를 비울 때마다 Member.team 프록시를 새로 초기화한다
+	private void loadTeamLazily(int times) {
+		for (int i = 0; i < times; ++i) {
+			entityManager.clear();
+			entityManager.find(Member.class, memberId).getTeam().getName();
+		}
+	}
+}
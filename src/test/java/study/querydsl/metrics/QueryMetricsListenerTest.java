@@ -0,0 +1,51 @@
+package study.querydsl.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class QueryMetricsListenerTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private MemberRepository memberRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	@DisplayName("Repository 메서드별 SQL 지표")
+	void recordLatencyByOrigin() {
+		Team team = new Team("Team1");
+		entityManager.persist(team);
+		entityManager.persist(new Member("member1", 10, team));
+		entityManager.flush();
+
+		memberRepository.searchPagingComplex(new MemberSearchCondition(), PageRequest.of(0, 10));
+
+		// SQL은 Repository 구현체의 메서드 이름으로 태그되어야 한다
+		Timer timer = meterRegistry.find("querydsl.query.latency")
+			.tag("origin", "MemberRepositoryImpl.searchPagingComplex")
+			.tag("type", "select")
+			.timer();
+		assertThat(timer).isNotNull();
+		assertThat(timer.count()).isPositive();
+	}
+}
@@ -0,0 +1,141 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.repository.statistics.MemberStatisticsRepository;
+import study.querydsl.repository.support.BulkProgress;
+import study.querydsl.repository.support.ChunkedBulkExecutor;
+import study.querydsl.repository.support.ChunkedBulkResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static study.querydsl.domain.QMember.member;
+
+// chunk마다 별도의 트랜잭션으로 커밋하므로 테스트 트랜잭션을 사용하지 않고, 직접 데이터를 정리한다
+@SpringBootTest(properties = {
+	"querydsl.bulk.chunk-size=3",
+	"querydsl.bulk.throttle-millis=0"
+})
+class ChunkedBulkExecutorTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ChunkedBulkExecutor chunkedBulkExecutor;
+
+	@Autowired
+	private MemberTestRepository memberTestRepository;
+
+	@Autowired
+	private MemberStatisticsRepository memberStatisticsRepository;
+
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void setup() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.executeWithoutResult(status -> {
+			Team teamA = new Team("Team1");
+			Team teamB = new Team("Team2");
+			entityManager.persist(teamA);
+			entityManager.persist(teamB);
+
+			for (int i = 1; i <= 10; ++i) {
+				Team selectedTeam = i % 2 != 0 ? teamA : teamB;
+				entityManager.persist(new Member("member" + i, 10 + i * 5, selectedTeam));
+			}
+		});
+	}
+
+	@AfterEach
+	void cleanup() {
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.createQuery("delete from Member").executeUpdate();
+			entityManager.createQuery("delete from Team").executeUpdate();
+		});
+	}
+
+	@Test
+	@DisplayName("조건에 맞는 row의 식별자 범위를 chunk로 나누어 수정한다")
+	void update() {
+		List<BulkProgress> progresses = new ArrayList<>();
+
+		// 15, 20, 25세 회원 3명, 식별자 범위 전체는 10건
+		ChunkedBulkResult result = chunkedBulkExecutor.update(member, member.id, member.age.lt(28),
+			update -> update.set(member.name, "비회원"), progresses::add);
+
+		assertThat(result.getAffectedRows()).isEqualTo(3);
+		assertThat(progresses).hasSize(result.getChunks());
+		assertThat(progresses.get(progresses.size() - 1).getPercent()).isEqualTo(100.0);
+		assertThat(names()).filteredOn(name -> name.equals("비회원")).hasSize(3);
+	}
+
+	@Test
+	@DisplayName("전체 row를 chunk로 나누어 수정하고 삭제한다")
+	void addAndDelete() {
+		ChunkedBulkResult added = memberTestRepository.bulkAddAge(1);
+		ChunkedBulkResult deleted = memberTestRepository.bulkDeleteOlderThan(51);
+
+		// 10건을 3건씩 나누면 4개의 chunk가 된다
+		assertThat(added.getAffectedRows()).isEqualTo(10);
+		assertThat(added.getChunks()).isEqualTo(4);
+		// 56, 61세 회원 2명
+		assertThat(deleted.getAffectedRows()).isEqualTo(2);
+		assertThat(names()).hasSize(8);
+	}
+
+	@Test
+	@DisplayName("chunk마다 식별자 범위의 증감분이 통계에 반영된다")
+	void statistics() {
+		chunkedBulkExecutor.update(member, member.id, member.age.goe(40), update -> update.set(member.age, member.age.add(10)));
+
+		// 다시 집계하지 않고 chunk 트랜잭션이 커밋될 때 반영되므로 바로 조회할 수 있다
+		assertThat(memberStatisticsRepository.findTeamStatistics())
+			.extracting("teamName", "memberCount", "ageSum", "minAge", "maxAge")
+			.containsExactly(tuple("Team1", 5L, 195L, 15, 65), tuple("Team2", 5L, 230L, 20, 70));
+	}
+
+	@Test
+	@DisplayName("조건에 맞는 row가 없으면 실행하지 않는다")
+	void empty() {
+		ChunkedBulkResult result = memberTestRepository.bulkDeleteOlderThan(100);
+
+		assertThat(result.getAffectedRows()).isZero();
+		assertThat(result.getChunks()).isZero();
+	}
+
+	@Test
+	@DisplayName("쓰기 트랜잭션 안에서는 실행하지 않는다")
+	void insideWriteTransaction() {
+		assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+			// 호출한 쪽에서 flush되지 않은 변경은 chunk 트랜잭션에서 볼 수 없다
+			entityManager.persist(new Member("member11", 70));
+			memberTestRepository.bulkDeleteOlderThan(65);
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(names()).hasSize(10);
+	}
+
+	private List<String> names() {
+		return transactionTemplate.execute(status -> entityManager
+			.createQuery("select m.name from Member m", String.class)
+			.getResultList());
+	}
+}
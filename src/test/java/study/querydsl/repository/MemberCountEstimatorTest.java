@@ -0,0 +1,94 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.statistics.MemberStatisticsMaintainer;
+import study.querydsl.repository.support.EstimatedPage;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// threshold를 0으로 설정하여 모든 검색에서 추정값을 사용하도록 한다
+@Transactional
+@SpringBootTest(properties = {
+	"querydsl.count-estimate.enabled=true",
+	"querydsl.count-estimate.threshold=0"
+})
+class MemberCountEstimatorTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private MemberRepository memberRepository;
+
+	@Autowired
+	private MemberTestRepository memberTestRepository;
+
+	@Autowired
+	private MemberStatisticsMaintainer memberStatisticsMaintainer;
+
+	@BeforeEach
+	void setup() {
+		Team teamA = new Team("Team1");
+		Team teamB = new Team("Team2");
+		entityManager.persist(teamA);
+		entityManager.persist(teamB);
+
+		for (int i = 1; i <= 10; ++i) {
+			Team selectedTeam = i % 2 != 0 ? teamA : teamB;
+			entityManager.persist(new Member("member" + i, 10 + i * 5, selectedTeam));
+		}
+		// 통계는 커밋 직전에 반영되므로 테스트 트랜잭션 안에서 직접 반영한다
+		memberStatisticsMaintainer.flush();
+	}
+
+	@Test
+	@DisplayName("구간 경계에 맞는 검색은 오차없이 추정된다")
+	void estimateAlignedBuckets() {
+		// Team2: 20, 30, 40, 50, 60
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("Team2");
+		condition.setAgeGoe(20);
+		condition.setAgeLoe(49);
+
+		Page<MemberTeamDto> result = memberRepository.searchPagingComplex(condition, PageRequest.of(0, 2));
+
+		assertThat(result).isInstanceOf(EstimatedPage.class);
+		assertThat(result.getTotalElements()).isEqualTo(3);
+		assertThat(((EstimatedPage<MemberTeamDto>) result).getTotalErrorBound()).isZero();
+	}
+
+	@Test
+	@DisplayName("구간 일부만 포함하는 검색은 오차범위 안에서 추정된다")
+	void estimatePartialBuckets() {
+		// Team1: 15, 25, 35, 41, 45, 55 -> 실제 20 ~ 42 사이는 25, 35, 41 3건
+		Team teamA = entityManager.createQuery("select t from Team t where t.name = 'Team1'", Team.class).getSingleResult();
+		entityManager.persist(new Member("member11", 41, teamA));
+		memberStatisticsMaintainer.flush();
+
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("Team1");
+		condition.setAgeGoe(20);
+		condition.setAgeLoe(42);
+
+		Page<MemberTeamDto> result = memberTestRepository.applyPaginationEstimated(condition, PageRequest.of(0, 3));
+
+		assertThat(result).isInstanceOf(EstimatedPage.class);
+		long errorBound = ((EstimatedPage<MemberTeamDto>) result).getTotalErrorBound();
+		assertThat(errorBound).isPositive();
+		assertThat(Math.abs(result.getTotalElements() - 3)).isLessThanOrEqualTo(errorBound);
+		assertThat(result.getContent()).extracting("memberName").containsExactly("member3", "member5", "member11");
+	}
+}
@@ -11,7 +11,9 @@ import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -133,5 +135,50 @@ class MemberJpaRepositoryTest {
 		assertThat(result).extracting("memberName").containsExactly("member4");
 	}
 
+	@Test
+	@DisplayName("검색결과 스트리밍")
+	void streamByCondition() {
+		Team teamA = new Team("Team1");
+		Team teamB = new Team("Team2");
+		entityManager.persist(teamA);
+		entityManager.persist(teamB);
+
+		for (int i = 1; i <= 10; ++i) {
+			Team selectedTeam = i % 2 != 0 ? teamA : teamB;
+			entityManager.persist(new Member("member" + i, 10 + i, selectedTeam));
+		}
+		entityManager.flush();
+
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		memberSearchCondition.setTeamName("Team2");
 
-}
\ No newline at end of file
+		// clearInterval보다 많은 row를 조회해도 consumer에는 모든 row가 전달되어야 한다
+		List<MemberTeamDto> result = new ArrayList<>();
+		long count = memberJpaRepository.streamByCondition(memberSearchCondition, 2, 2, result::add);
+
+		assertThat(count).isEqualTo(5);
+		assertThat(result).extracting("memberName")
+			.containsExactly("member2", "member4", "member6", "member8", "member10");
+	}
+
+	@Test
+	@DisplayName("검색결과 스트리밍은 searchByBuilder와 같은 결과를 전달한다")
+	void streamByConditionWithoutAgeBounds() {
+		Team teamA = new Team("Team1");
+		entityManager.persist(teamA);
+		entityManager.persist(new Member("member1", 30, teamA));
+		entityManager.persist(new Member("member2", 120, teamA));
+		entityManager.flush();
+
+		// 나이 조건이 없으면 0~100세 밖의 회원도 포함된다
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		List<MemberTeamDto> result = new ArrayList<>();
+		memberJpaRepository.streamByCondition(memberSearchCondition, 2, 2, result::add);
+
+		assertThat(result).extracting("memberName")
+			.containsExactlyInAnyOrderElementsOf(memberJpaRepository.searchByBuilder(memberSearchCondition).stream()
+				.map(MemberTeamDto::getMemberName)
+				.collect(Collectors.toList()))
+			.contains("member2");
+	}
+}
@@ -1,5 +1,6 @@
 package study.querydsl.repository;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,12 +8,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.Member;
 import study.querydsl.domain.QMember;
 import study.querydsl.domain.Team;
 import study.querydsl.dto.querydsl.MemberSearchCondition;
 import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.support.KeysetSlice;
 import study.querydsl.repository.query.MemberQueryRepository;
 
 import javax.persistence.EntityManager;
@@ -21,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.QMember.member;
 
 @Transactional
 @SpringBootTest
@@ -31,6 +36,9 @@ class MemberRepositoryTest {
 	@Autowired
 	private MemberRepository memberRepository;
 
+	@Autowired
+	private MemberRepositoryImpl memberRepositoryImpl;
+
 	// 특정 조회용 API를 구현할 땐 별도의 Query용 Repository를 구현하여 사용할 수 있다.
 	@Autowired
 	private MemberQueryRepository memberQueryRepository;
@@ -100,6 +108,26 @@ class MemberRepositoryTest {
 		assertThat(result).extracting("memberName").containsExactly("member3", "member6");
 	}
 
+	@Test
+	@DisplayName("search with query template cache")
+	void searchWithQueryTemplateCache() {
+		// 조건의 값이 달라도 조건의 조합이 같다면 캐싱된 쿼리를 재사용해야 한다
+		long hitCount = memberRepositoryImpl.getSearchTemplates().getHitCount();
+
+		MemberSearchCondition team2 = new MemberSearchCondition();
+		team2.setTeamName("Team2");
+		team2.setAgeLoe(35);
+		memberRepository.search(team2);
+
+		MemberSearchCondition team1 = new MemberSearchCondition();
+		team1.setTeamName("Team1");
+		team1.setAgeGoe(20);
+		List<MemberTeamDto> result = memberRepository.search(team1);
+
+		assertThat(memberRepositoryImpl.getSearchTemplates().getHitCount()).isGreaterThan(hitCount);
+		assertThat(result).extracting("memberName").containsExactly("member2", "member5");
+	}
+
 	@Test
 	@DisplayName("search with page")
 	void searchWithPage() {
@@ -148,6 +176,89 @@ class MemberRepositoryTest {
 			.containsExactly("member6");
 	}
 
+	@Test
+	@DisplayName("search slice with sort")
+	void searchSliceWithSort() {
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		memberSearchCondition.setTeamName("Team2");
+
+		Slice<MemberTeamDto> byAge = memberRepository.searchSlice(memberSearchCondition,
+			PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "age")));
+		assertThat(byAge).extracting("memberName")
+			.containsExactly("member4", "member6");
+
+		// 정렬값(팀 이름)이 모두 같으면 식별자 순서로 이어서 조회한다
+		Slice<MemberTeamDto> first = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(0, 2, Sort.by("team.name")));
+		Slice<MemberTeamDto> second = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(1, 2, Sort.by("team.name")));
+		assertThat(first).extracting("memberName")
+			.containsExactly("member3", "member4");
+		assertThat(second).extracting("memberName")
+			.containsExactly("member6");
+	}
+
+	@Test
+	@DisplayName("search with page complex and cached count")
+	void searchWithPageComplexAndCachedCount() {
+		// 캐싱된 total은 Bulk 연산으로 member가 변경되면 다시 계산되어야 한다
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		memberSearchCondition.setTeamName("Team2");
+		memberSearchCondition.setAgeLoe(35);
+
+		PageRequest pageRequest = PageRequest.of(0, 1);
+		Page<MemberTeamDto> result = memberRepository.searchPagingComplex(memberSearchCondition, pageRequest);
+		assertThat(result.getTotalElements()).isEqualTo(2);
+
+		result = memberRepository.searchPagingComplex(memberSearchCondition, pageRequest);
+		assertThat(result.getTotalElements()).isEqualTo(2);
+
+		new JPAQueryFactory(entityManager)
+			.update(member)
+			.set(member.age, 50)
+			.where(member.name.eq("member3"))
+			.execute();
+
+		result = memberRepository.searchPagingComplex(memberSearchCondition, pageRequest);
+		assertThat(result.getTotalElements()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("search slice")
+	void searchSlice() {
+		// count query 없이 pageSize + 1개를 조회하여 다음 페이지 존재여부를 판단한다
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		memberSearchCondition.setTeamName("Team2");
+
+		Slice<MemberTeamDto> first = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(0, 2));
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first).extracting("memberName")
+			.containsExactly("member3", "member4");
+
+		Slice<MemberTeamDto> second = memberRepository.searchSlice(memberSearchCondition, PageRequest.of(1, 2));
+		assertThat(second.hasNext()).isFalse();
+		assertThat(second).extracting("memberName")
+			.containsExactly("member6");
+	}
+
+	@Test
+	@DisplayName("search with keyset")
+	void searchWithKeyset() {
+		// age, member_id 순으로 정렬되며 nextCursor를 통해 다음 페이지를 조회한다
+		MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+		memberSearchCondition.setTeamName("Team2");
+
+		KeysetSlice<MemberTeamDto> first = memberRepository.searchByKeyset(memberSearchCondition, null, 2);
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first.getNextCursor()).isNotNull();
+		assertThat(first).extracting("memberName")
+			.containsExactly("member3", "member6");
+
+		KeysetSlice<MemberTeamDto> second = memberRepository.searchByKeyset(memberSearchCondition, first.getNextCursor(), 2);
+		assertThat(second.hasNext()).isFalse();
+		assertThat(second.getNextCursor()).isNull();
+		assertThat(second).extracting("memberName")
+			.containsExactly("member4");
+	}
+
 	@Test
 	@DisplayName("queydsl predicate executor")
 	void querydslPredicateExecutorTest() {
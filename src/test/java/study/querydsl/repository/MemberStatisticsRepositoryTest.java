@@ -0,0 +1,144 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.querydsl.TeamStatisticsDto;
+import study.querydsl.repository.statistics.MemberStatisticsMaintainer;
+import study.querydsl.repository.statistics.MemberStatisticsRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static study.querydsl.domain.QMember.member;
+
+@Transactional
+@SpringBootTest
+class MemberStatisticsRepositoryTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private JPAQueryFactory jpaQueryFactory;
+
+	@Autowired
+	private MemberStatisticsRepository memberStatisticsRepository;
+
+	@Autowired
+	private MemberStatisticsMaintainer memberStatisticsMaintainer;
+
+	private Team teamA;
+
+	private Team teamB;
+
+	@BeforeEach
+	void setup() {
+		teamA = new Team("TeamA");
+		teamB = new Team("TeamB");
+		entityManager.persist(teamA);
+		entityManager.persist(teamB);
+
+		entityManager.persist(new Member("member1", 10, teamA));
+		entityManager.persist(new Member("member2", 20, teamA));
+		entityManager.persist(new Member("member3", 30, teamB));
+		entityManager.persist(new Member("member4", 40, teamB));
+		memberStatisticsMaintainer.flush();
+	}
+
+	@Test
+	@DisplayName("회원 등록은 팀별 통계에 증분으로 반영된다")
+	void insert() {
+		List<TeamStatisticsDto> result = memberStatisticsRepository.findTeamStatistics();
+
+		assertThat(result).extracting("teamName", "memberCount", "minAge", "maxAge")
+			.containsExactly(tuple("TeamA", 2L, 10, 20), tuple("TeamB", 2L, 30, 40));
+		assertThat(result.get(0).getAverageAge()).isEqualTo(15.0);
+	}
+
+	@Test
+	@DisplayName("나이, 팀 변경과 삭제는 이전 구간에서 빠지고 새 구간에 더해진다")
+	void updateAndDelete() {
+		// 팀이 없는 회원은 teamId 0으로 집계된다
+		Member noTeam = new Member("member5", 50);
+		entityManager.persist(noTeam);
+		memberStatisticsMaintainer.flush();
+		assertThat(memberStatisticsRepository.findTeamStatistics()).extracting("teamId").containsExactly(0L, teamA.getId(), teamB.getId());
+
+		Member member1 = entityManager.find(Member.class, memberId("member1"));
+		member1.changeTeam(teamB);
+		entityManager.remove(noTeam);
+		memberStatisticsMaintainer.flush();
+
+		assertThat(memberStatisticsRepository.findTeamStatistics())
+			.extracting("teamName", "memberCount", "minAge", "maxAge")
+			.containsExactly(tuple("TeamA", 1L, 20, 20), tuple("TeamB", 3L, 10, 40));
+	}
+
+	@Test
+	@DisplayName("엔티티 이벤트가 없는 Bulk 연산은 member 테이블과 비교하여 보정한다")
+	void bulkUpdate() {
+		jpaQueryFactory
+			.update(member)
+			.set(member.age, member.age.add(5))
+			.where(member.age.goe(30))
+			.execute();
+		memberStatisticsMaintainer.flush();
+
+		assertThat(memberStatisticsRepository.findTeamStatistics())
+			.extracting("teamName", "memberCount", "ageSum", "minAge", "maxAge")
+			.containsExactly(tuple("TeamA", 2L, 30L, 10, 20), tuple("TeamB", 2L, 80L, 35, 45));
+		assertThat(memberStatisticsRepository.findBucketStatistics())
+			.extracting("teamName", "ageBucket")
+			.containsExactly(tuple("TeamA", 1), tuple("TeamA", 2), tuple("TeamB", 3), tuple("TeamB", 4));
+	}
+
+	@Test
+	@DisplayName("식별자 조건의 Bulk 연산도 엔티티 이벤트가 없으므로 보정한다")
+	void bulkUpdateById() {
+		jpaQueryFactory
+			.update(member)
+			.set(member.age, 45)
+			.where(member.id.eq(memberId("member1")))
+			.execute();
+		memberStatisticsMaintainer.flush();
+
+		assertThat(memberStatisticsRepository.findTeamStatistics())
+			.extracting("teamName", "memberCount", "ageSum", "minAge", "maxAge")
+			.containsExactly(tuple("TeamA", 2L, 65L, 20, 45), tuple("TeamB", 2L, 70L, 30, 40));
+	}
+
+	@Test
+	@DisplayName("BulkWriteInterceptor로 실행한 Bulk 연산은 scope의 전후 차이만 증감분으로 반영한다")
+	void bulkUpdateWithScope() {
+		Long member3 = memberId("member3");
+		Long member4 = memberId("member4");
+
+		long updated = memberStatisticsMaintainer.execute(member, member.id.in(member3, member4), () -> jpaQueryFactory
+			.update(member)
+			.set(member.age, member.age.add(5))
+			.where(member.id.in(member3, member4), member.age.goe(30))
+			.execute());
+		memberStatisticsMaintainer.flush();
+
+		assertThat(updated).isEqualTo(2);
+		assertThat(memberStatisticsRepository.findTeamStatistics())
+			.extracting("teamName", "memberCount", "ageSum", "minAge", "maxAge")
+			.containsExactly(tuple("TeamA", 2L, 30L, 10, 20), tuple("TeamB", 2L, 80L, 35, 45));
+		assertThat(memberStatisticsRepository.findBucketStatistics())
+			.extracting("teamName", "ageBucket")
+			.containsExactly(tuple("TeamA", 1), tuple("TeamA", 2), tuple("TeamB", 3), tuple("TeamB", 4));
+	}
+
+	private Long memberId(String name) {
+		return jpaQueryFactory.select(member.id).from(member).where(member.name.eq(name)).fetchOne();
+	}
+}
@@ -1,5 +1,6 @@
 package study.querydsl.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.domain.Member;
 import study.querydsl.domain.Team;
@@ -98,6 +101,44 @@ class MemberTestRepositoryTest {
 			.containsExactly("member1", "member3", "member5");
 	}
 
+	@Test
+	@DisplayName("search by apply slicing")
+	void searchByApplySlicing() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("Team1");
+
+		// Team1의 회원은 5명이므로 첫 페이지(3명) 이후에 다음 페이지가 존재한다
+		Slice<MemberTeamDto> first = memberTestRepository.applySlicing(condition, PageRequest.of(0, 3));
+		assertThat(first.hasNext()).isTrue();
+		assertThat(first).extracting("memberName")
+			.containsExactly("member1", "member3", "member5");
+
+		Slice<MemberTeamDto> second = memberTestRepository.applySlicing(condition, PageRequest.of(1, 3));
+		assertThat(second.hasNext()).isFalse();
+		assertThat(second).extracting("memberName")
+			.containsExactly("member7", "member9");
+	}
+
+	@Test
+	@DisplayName("search by apply slicing with sort")
+	void searchByApplySlicingWithSort() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setTeamName("Team1");
+
+		Slice<MemberTeamDto> byAge = memberTestRepository.applySlicing(condition,
+			PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "age")));
+		assertThat(byAge).extracting("memberName")
+			.containsExactly("member9", "member7", "member5");
+
+		// 정렬값(팀 이름)이 모두 같으면 식별자 순서로 이어서 조회한다
+		Slice<MemberTeamDto> first = memberTestRepository.applySlicing(condition, PageRequest.of(0, 3, Sort.by("team.name")));
+		Slice<MemberTeamDto> second = memberTestRepository.applySlicing(condition, PageRequest.of(1, 3, Sort.by("team.name")));
+		assertThat(first).extracting("memberName")
+			.containsExactly("member1", "member3", "member5");
+		assertThat(second).extracting("memberName")
+			.containsExactly("member7", "member9");
+	}
+
 	@Test
 	@DisplayName("search by apply pagination 2")
 	void searchByApplyPagination2() {
@@ -122,4 +163,15 @@ class MemberTestRepositoryTest {
 			.containsExactly("member7", "member9");
 
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("전체 회원을 batchSize 단위로 처리하고 변경 내용을 반영한다")
+	void processAllMembers() {
+		long processed = memberTestRepository.processAllMembers(3, member -> member.changeName(member.getName().toUpperCase()));
+
+		assertThat(processed).isEqualTo(10);
+		// 배치마다 영속성 컨텍스트를 비우므로 처리가 끝난 엔티티는 남아있지 않다
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+		assertThat(memberTestRepository.basicSelect()).extracting("name").allMatch(name -> name.toString().startsWith("MEMBER"));
+	}
+}
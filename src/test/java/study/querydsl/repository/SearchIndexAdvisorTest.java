@@ -0,0 +1,37 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.repository.support.IndexAdvice;
+import study.querydsl.repository.support.IndexAdvisor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class SearchIndexAdvisorTest {
+	@Autowired
+	private MemberRepositoryImpl memberRepositoryImpl;
+
+	@Autowired
+	private IndexAdvisor indexAdvisor;
+
+	@Test
+	@DisplayName("검색 shape별로 실행계획을 확인한다")
+	void advise() {
+		memberRepositoryImpl.registerSearchShapes();
+
+		List<IndexAdvice> advices = indexAdvisor.advise(memberRepositoryImpl.getSearchTemplates());
+
+		assertThat(advices).hasSize(4);
+		// 회원명 조건이 있는 shape은 idx_member_name을 사용한다
+		IndexAdvice memberName = advices.stream().filter(advice -> advice.getShape().equals(1)).findFirst().orElseThrow();
+		assertThat(memberName.getPlan()).containsIgnoringCase("idx_member_name");
+		assertThat(memberName.isTableScan()).isFalse();
+	}
+}
@@ -0,0 +1,68 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2차 캐시는 트랜잭션이 커밋된 이후에 채워지므로 테스트 트랜잭션을 사용하지 않는다
+@ActiveProfiles({"test", "memory", "cache"})
+@SpringBootTest
+class TeamRepositoryTest {
+	@Autowired
+	private TeamRepository teamRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	private Team team;
+
+	@BeforeEach
+	void setup() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		team = teamRepository.save(new Team("CachedTeam"));
+		statistics.clear();
+	}
+
+	@AfterEach
+	void cleanup() {
+		teamRepository.deleteById(team.getId());
+	}
+
+	@Test
+	@DisplayName("Team 엔티티 2차 캐시")
+	void secondLevelCache() {
+		teamRepository.findById(team.getId());
+		teamRepository.findById(team.getId());
+
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+	}
+
+	@Test
+	@DisplayName("findByName 쿼리 캐시")
+	void queryCache() {
+		assertThat(teamRepository.findByName("CachedTeam")).hasSize(1);
+		assertThat(teamRepository.findByName("CachedTeam")).hasSize(1);
+		assertThat(statistics.getQueryCacheHitCount()).isPositive();
+
+		// team이 변경되면 캐싱된 쿼리 결과는 무효화되어야 한다
+		Team another = teamRepository.save(new Team("CachedTeam"));
+		try {
+			assertThat(teamRepository.findByName("CachedTeam")).hasSize(2);
+		} finally {
+			teamRepository.deleteById(another.getId());
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package study.querydsl.repository.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamColumns;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@SpringBootTest
+class MemberTeamRowRepositoryTest {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private MemberTeamRowRepository memberTeamRowRepository;
+
+	@Autowired
+	private MemberJpaRepository memberJpaRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setup() {
+		Team teamA = new Team("teamA");
+		Team teamB = new Team("teamB");
+		entityManager.persist(teamA);
+		entityManager.persist(teamB);
+
+		for (int i = 1; i <= 10; ++i) {
+			entityManager.persist(new Member("member" + i, i * 5, i % 2 == 0 ? teamA : teamB));
+		}
+		entityManager.persist(new Member("noTeam", 30));
+		// JDBC로 조회하므로 영속성 컨텍스트의 변경을 먼저 반영한다
+		entityManager.flush();
+	}
+
+	@Test
+	@DisplayName("컬럼 배열로 조회한 결과는 QMemberTeamDto 프로젝션과 같은 JSON으로 직렬화된다")
+	void sameJsonAsDtoProjection() throws Exception {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setAgeGoe(20);
+		condition.setAgeLoe(40);
+
+		MemberTeamColumns columns = memberTeamRowRepository.searchColumns(condition, 100);
+
+		assertThat(columns.size()).isEqualTo(6);
+		List<?> expected = objectMapper.readValue(objectMapper.writeValueAsString(memberJpaRepository.searchByBuilder(condition)), List.class);
+		List<?> actual = objectMapper.readValue(objectMapper.writeValueAsString(columns), List.class);
+		assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	@DisplayName("입력되지 않은 조건은 적용하지 않는다")
+	void withoutConditions() throws Exception {
+		MemberSearchCondition condition = new MemberSearchCondition();
+
+		MemberTeamColumns columns = memberTeamRowRepository.searchColumns(condition, 100);
+
+		assertThat(columns.size()).isEqualTo(11);
+		List<?> expected = objectMapper.readValue(objectMapper.writeValueAsString(memberJpaRepository.searchByBuilder(condition)), List.class);
+		List<?> actual = objectMapper.readValue(objectMapper.writeValueAsString(columns), List.class);
+		assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	@DisplayName("팀이 없는 회원은 teamId가 NO_TEAM으로 전달된다")
+	void memberWithoutTeam() {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setMemberName("noTeam");
+
+		MemberTeamColumns columns = memberTeamRowRepository.searchColumns(condition, 100);
+
+		assertThat(columns.size()).isEqualTo(1);
+		assertThat(columns.hasTeam(0)).isFalse();
+		assertThat(columns.getTeamName(0)).isNull();
+	}
+}
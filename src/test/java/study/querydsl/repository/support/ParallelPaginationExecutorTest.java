@@ -0,0 +1,179 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.domain.Member;
+import study.querydsl.domain.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.domain.QMember.member;
+
+// count query는 다른 커넥션에서 실행되므로 테스트 트랜잭션을 사용하지 않고 데이터를 커밋한다
+@SpringBootTest
+class ParallelPaginationExecutorTest {
+	private static final String WORKER_PREFIX = "parallel-pagination-";
+
+	private static final Pageable PAGEABLE = PageRequest.of(0, 2);
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JPAQueryFactory jpaQueryFactory;
+
+	private ParallelPaginationExecutor parallelPaginationExecutor;
+
+	@BeforeEach
+	void setup() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Team team = new Team("Team1");
+			entityManager.persist(team);
+			for (int i = 1; i <= 5; ++i) {
+				entityManager.persist(new Member("member" + i, i * 10, team));
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		parallelPaginationExecutor.destroy();
+	}
+
+	@Test
+	@DisplayName("count query는 작업 스레드에서, content query는 호출한 스레드에서 실행한다")
+	void parallel() {
+		parallelPaginationExecutor = executor(3000);
+		List<String> countThreads = new CopyOnWriteArrayList<>();
+
+		Page<Member> page = fetchPage(countQuery -> {
+			countThreads.add(Thread.currentThread().getName());
+			return countQuery.getAsLong();
+		});
+
+		assertThat(page.getContent()).extracting("name").containsExactly("member1", "member2");
+		assertThat(page.getTotalElements()).isEqualTo(5);
+		assertThat(countThreads).hasSize(1).allMatch(name -> name.startsWith(WORKER_PREFIX));
+	}
+
+	@Test
+	@DisplayName("작업 스레드와 대기열이 모두 사용중이면 순차 실행한다")
+	void rejected() throws Exception {
+		parallelPaginationExecutor = executor(5000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ToLongFunction<LongSupplier> blockingCount = countQuery -> {
+			started.countDown();
+			await(release);
+			return countQuery.getAsLong();
+		};
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+
+		try {
+			// 첫번째 호출의 count가 작업 스레드를 점유하고, 두번째 호출의 count는 대기열에서 기다린다
+			Future<Page<Member>> running = callers.submit(() -> fetchPage(blockingCount));
+			started.await(1, TimeUnit.SECONDS);
+			AtomicReference<Thread> queuedCaller = new AtomicReference<>();
+			Future<Page<Member>> queued = callers.submit(() -> {
+				queuedCaller.set(Thread.currentThread());
+				return fetchPage(blockingCount);
+			});
+			while (queuedCaller.get() == null || queuedCaller.get().getState() != Thread.State.TIMED_WAITING) {
+				Thread.sleep(1);
+			}
+
+			Page<Member> sequential = Page.empty();
+			assertThat(parallelPaginationExecutor.fetchPage(PAGEABLE, contentQuery(), countQuery(), blockingCount, () -> sequential))
+				.isSameAs(sequential);
+
+			release.countDown();
+			assertThat(running.get(1, TimeUnit.SECONDS).getTotalElements()).isEqualTo(5);
+			assertThat(queued.get(1, TimeUnit.SECONDS).getTotalElements()).isEqualTo(5);
+		} finally {
+			release.countDown();
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("count query가 타임아웃되면 조회한 content는 그대로 사용하고 count만 호출한 스레드에서 다시 실행한다")
+	void timeout() {
+		parallelPaginationExecutor = executor(200);
+		List<String> countThreads = new CopyOnWriteArrayList<>();
+
+		Page<Member> page = fetchPage(countQuery -> {
+			countThreads.add(Thread.currentThread().getName());
+			if (Thread.currentThread().getName().startsWith(WORKER_PREFIX)) {
+				// 타임아웃되어 취소될 때까지 기다린다
+				await(new CountDownLatch(1));
+			}
+			return countQuery.getAsLong();
+		});
+
+		assertThat(page.getContent()).extracting("name").containsExactly("member1", "member2");
+		assertThat(page.getTotalElements()).isEqualTo(5);
+		assertThat(countThreads).contains(Thread.currentThread().getName());
+	}
+
+	private ParallelPaginationExecutor executor(long timeoutMillis) {
+		return new ParallelPaginationExecutor(entityManagerFactory, transactionManager, true, 1, 1, timeoutMillis);
+	}
+
+	// 순차 실행으로 대체되면 실패한다
+	private Page<Member> fetchPage(ToLongFunction<LongSupplier> countLoader) {
+		return parallelPaginationExecutor.fetchPage(PAGEABLE, contentQuery(), countQuery(), countLoader, () -> {
+			throw new AssertionError("sequential");
+		});
+	}
+
+	private JPAQuery<Member> contentQuery() {
+		return jpaQueryFactory
+			.selectFrom(member)
+			.orderBy(member.id.asc())
+			.offset(PAGEABLE.getOffset())
+			.limit(PAGEABLE.getPageSize());
+	}
+
+	private JPAQuery<Member> countQuery() {
+		return jpaQueryFactory.selectFrom(member);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
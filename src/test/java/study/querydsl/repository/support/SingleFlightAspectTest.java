@@ -0,0 +1,73 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.querydsl.MemberSearchCondition;
+import study.querydsl.dto.querydsl.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 쓰기 트랜잭션 여부를 직접 정하기 위해 테스트 트랜잭션을 사용하지 않는다
+@SpringBootTest
+class SingleFlightAspectTest {
+	@Autowired
+	private SingleFlightAspect singleFlightAspect;
+
+	@Autowired
+	private MemberRepository memberRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	@DisplayName("쓰기 트랜잭션 안의 검색은 다른 호출과 공유하지 않는다")
+	void bypassInsideWriteTransaction() {
+		SingleFlight<List<Object>, Object> singleFlight = singleFlightAspect.getSingleFlight();
+		long executions = singleFlight.getExecutionCount();
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> memberRepository.search(condition("member1")));
+		assertThat(singleFlight.getExecutionCount()).isEqualTo(executions);
+
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.executeWithoutResult(status -> memberRepository.search(condition("member1")));
+		assertThat(singleFlight.getExecutionCount()).isEqualTo(executions + 1);
+	}
+
+	@Test
+	@DisplayName("공유되는 List 결과는 변경할 수 없다")
+	void unmodifiableResult() {
+		List<MemberTeamDto> result = memberRepository.search(condition("member1"));
+
+		assertThatThrownBy(result::clear)
+			.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	@DisplayName("빈 문자열 검색조건은 조건이 없는 것과 같은 key가 된다")
+	void normalizedKey() {
+		MemberSearchCondition blank = condition("");
+		blank.setTeamName(" ");
+		MemberSearchCondition empty = new MemberSearchCondition();
+
+		assertThat(singleFlightAspect.key("search", new Object[]{blank}))
+			.isEqualTo(singleFlightAspect.key("search", new Object[]{empty}));
+		assertThat(singleFlightAspect.key("search", new Object[]{condition("member1")}))
+			.isNotEqualTo(singleFlightAspect.key("search", new Object[]{empty}))
+			.isNotEqualTo(singleFlightAspect.key("searchSlice", new Object[]{condition("member1")}));
+	}
+
+	private MemberSearchCondition condition(String memberName) {
+		MemberSearchCondition condition = new MemberSearchCondition();
+		condition.setMemberName(memberName);
+		return condition;
+	}
+}
@@ -0,0 +1,102 @@
+package study.querydsl.repository.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+	@Test
+	@DisplayName("실행중인 같은 key의 호출은 결과를 공유한다")
+	void coalesce() throws Exception {
+		SingleFlight<String, Object> singleFlight = new SingleFlight<>(1000);
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> execute(singleFlight, "key", () -> {
+				executions.incrementAndGet();
+				started.countDown();
+				release.await(1, TimeUnit.SECONDS);
+				return new Object();
+			}), executor);
+			started.await(1, TimeUnit.SECONDS);
+
+			CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> execute(singleFlight, "key", () -> {
+				executions.incrementAndGet();
+				return new Object();
+			}), executor);
+			while (singleFlight.getCoalescedCount() == 0) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			assertThat(follower.get(1, TimeUnit.SECONDS)).isSameAs(leader.get(1, TimeUnit.SECONDS));
+			assertThat(executions.get()).isEqualTo(1);
+			assertThat(singleFlight.getExecutionCount()).isEqualTo(1);
+			assertThat(singleFlight.inFlightCount()).isZero();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	@DisplayName("실행이 끝난 뒤의 호출은 다시 실행하고, 예외는 그대로 전달한다")
+	void executeAgainAfterCompletion() throws Throwable {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>(1000);
+
+		assertThat(singleFlight.execute("key", () -> "first")).isEqualTo("first");
+		assertThat(singleFlight.execute("key", () -> "second")).isEqualTo("second");
+		assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+			throw new IllegalArgumentException("failed");
+		})).isInstanceOf(IllegalArgumentException.class);
+		assertThat(singleFlight.getExecutionCount()).isEqualTo(3);
+		assertThat(singleFlight.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("먼저 도착한 호출이 타임아웃 안에 끝나지 않으면 기다리던 호출은 직접 실행한다")
+	void timeout() throws Throwable {
+		SingleFlight<String, String> singleFlight = new SingleFlight<>(50);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> execute(singleFlight, "key", () -> {
+				started.countDown();
+				release.await(5, TimeUnit.SECONDS);
+				return "leader";
+			}), executor);
+			started.await(1, TimeUnit.SECONDS);
+
+			assertThat(singleFlight.execute("key", () -> "follower")).isEqualTo("follower");
+			assertThat(singleFlight.getCoalescedCount()).isEqualTo(1);
+			assertThat(singleFlight.getExecutionCount()).isEqualTo(2);
+
+			release.countDown();
+			assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo("leader");
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private <V> V execute(SingleFlight<String, V> singleFlight, String key, SingleFlight.Loader<V> loader) {
+		try {
+			return singleFlight.execute(key, loader);
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
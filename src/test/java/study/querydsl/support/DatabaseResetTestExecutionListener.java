@@ -0,0 +1,49 @@
+package study.querydsl.support;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import study.querydsl.repository.support.TableChangeTracker;
+
+import java.util.List;
+import java.util.Locale;
+
+// 테스트 클래스들이 캐싱된 하나의 Spring 컨텍스트(= 하나의 DB)를 공유하므로, 테스트마다 시작 전에 모든 테이블을 비운다
+// 대부분의 테스트는 롤백되지만, 커밋하는 테스트(ChunkedBulkExecutorTest, TeamRepositoryTest 등)가 남긴 데이터가 다른 테스트에 보이지 않도록 한다
+// META-INF/spring.factories로 등록되므로 모든 Spring 테스트에 적용된다
+public class DatabaseResetTestExecutionListener extends AbstractTestExecutionListener {
+	private static final String TABLES_QUERY =
+		"select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_type in ('TABLE', 'BASE TABLE')";
+
+	// 테스트 트랜잭션이 시작되기 전에 실행되어야 한다 (TransactionalTestExecutionListener보다 먼저)
+	@Override
+	public int getOrder() {
+		return 3500;
+	}
+
+	@Override
+	public void beforeTestMethod(TestContext testContext) {
+		ApplicationContext context = testContext.getApplicationContext();
+		JdbcTemplate jdbcTemplate = context.getBeanProvider(JdbcTemplate.class).getIfAvailable();
+		if (jdbcTemplate == null) {
+			return;
+		}
+
+		List<String> tables = jdbcTemplate.queryForList(TABLES_QUERY, String.class);
+		jdbcTemplate.execute("set referential_integrity false");
+		try {
+			for (String table : tables) {
+				jdbcTemplate.execute("truncate table " + table);
+			}
+		} finally {
+			jdbcTemplate.execute("set referential_integrity true");
+		}
+
+		// Hibernate를 거치지 않은 변경이므로 테이블 버전을 사용하는 캐시(count 캐시 등)가 이전 값을 사용하지 않도록 알린다
+		TableChangeTracker tableChangeTracker = context.getBeanProvider(TableChangeTracker.class).getIfAvailable();
+		if (tableChangeTracker != null) {
+			tables.forEach(table -> tableChangeTracker.markChanged(table.toLowerCase(Locale.ROOT)));
+		}
+	}
+}